@@ -0,0 +1,143 @@
+package com.bse.backend.assignment.coffeestore.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A closed-loop HTTP load test against a running application: a fixed number of clients each send
+ * authenticated requests one after another for a fixed time. Run it once against the platform-thread pool
+ * and once with {@code spring.threads.virtual.enabled=true} to compare the two.
+ * <p>
+ * Arguments: base URL, concurrent clients, duration in seconds.
+ */
+public final class LoadTestRunner {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String ORDER = "{\"items\":[{\"drinkId\":2,\"toppingIds\":[1,2]},{\"drinkId\":3}]}";
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        // exec:exec passes -Dbenchmark.args as a single argument
+        String[] args = String.join(" ", arguments).trim().split("\\s+");
+        String baseUrl = !args[0].isEmpty() ? args[0] : "http://localhost:8080/coffee-store";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        String token = signUp(httpClient, baseUrl);
+        send(httpClient, post(baseUrl + "/api/v1/orders", token, ORDER));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/orders"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+
+        // Warm up, then measure
+        run(httpClient, request, clients, Duration.ofSeconds(5));
+        Result result = run(httpClient, request, clients, duration);
+
+        System.out.printf("clients=%d duration=%ds requests=%d errors=%d throughput=%.1f req/s "
+                        + "p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                clients, duration.toSeconds(), result.latencies().length, result.errors(),
+                result.latencies().length / (double) duration.toSeconds(),
+                percentile(result.latencies(), 0.50), percentile(result.latencies(), 0.99),
+                percentile(result.latencies(), 1.0));
+    }
+
+    private static Result run(HttpClient httpClient, HttpRequest request, int clients, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<ClientResult>> futures = new ArrayList<>(clients);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    int errors = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        int status = send(httpClient, request);
+                        if (status != 200) {
+                            errors++;
+                            continue;
+                        }
+                        if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return new ClientResult(Arrays.copyOf(latencies, count), errors);
+                }));
+            }
+        }
+
+        long[] latencies = new long[0];
+        int errors = 0;
+        for (Future<ClientResult> future : futures) {
+            ClientResult clientResult = future.get();
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + clientResult.latencies().length);
+            System.arraycopy(clientResult.latencies(), 0, latencies, offset, clientResult.latencies().length);
+            errors += clientResult.errors();
+        }
+        Arrays.sort(latencies);
+
+        return new Result(latencies, errors);
+    }
+
+    private static String signUp(HttpClient httpClient, String baseUrl) throws Exception {
+        String body = "{\"email\":\"load-" + UUID.randomUUID() + "@coffee-store.com\",\"password\":\"load-test\"}";
+        HttpResponse<String> response = httpClient.send(post(baseUrl + "/api/v1/auth/sign-up", null, body),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (!matcher.find()) throw new IllegalStateException("Sign-up failed: " + response.body());
+
+        return matcher.group(1);
+    }
+
+    private static HttpRequest post(String url, String token, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+
+        return builder.build();
+    }
+
+    private static int send(HttpClient httpClient, HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception ex) {
+            return -1;
+        }
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) return 0;
+
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private record ClientResult(long[] latencies, int errors) {
+    }
+
+    private record Result(long[] latencies, int errors) {
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.bse.backend.assignment.coffeestore.benchmark;
+
+import com.bse.backend.assignment.coffeestore.drink.api.exception.DrinkNotFoundException;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.internal.discount.DiscountCalculator;
+import com.bse.backend.assignment.coffeestore.order.internal.discount.rule.DiscountRule25Percent;
+import com.bse.backend.assignment.coffeestore.order.internal.discount.rule.DiscountRuleFreeItem;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.MenuLookup;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.MenuLookupLoader;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.OrderMapper;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import com.bse.backend.assignment.coffeestore.security.api.model.UserResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+
+/**
+ * The order pricing hot path: resolving the menu of an input order, mapping it to a priced entity,
+ * picking the discount, and each discount rule on its own.
+ */
+@State(Scope.Benchmark)
+public class PricingBenchmark {
+
+    private static final long SEED = 42L;
+
+    @Param({"1", "3", "10", "100", "500"})
+    private int itemCount;
+
+    private OrderMapper orderMapper;
+    private DiscountCalculator discountCalculator;
+    private DiscountRule25Percent percentRule;
+    private DiscountRuleFreeItem freeItemRule;
+    private MenuLookupLoader menuLookupLoader;
+    private MenuLookup menu;
+    private UserResponse user;
+    private InputOrder inputOrder;
+    private OrderEntity order;
+
+    @Setup
+    public void setUp() throws DrinkNotFoundException {
+        orderMapper = PricingFixtures.orderMapper();
+        discountCalculator = PricingFixtures.discountCalculator();
+        percentRule = PricingFixtures.percentRule();
+        freeItemRule = PricingFixtures.freeItemRule();
+        menuLookupLoader = PricingFixtures.menuLookupLoader();
+        menu = PricingFixtures.menu();
+        user = UserResponse.builder().email("benchmark@coffee-store").build();
+        inputOrder = PricingFixtures.inputOrder(itemCount, SEED);
+        order = orderMapper.toEntity(user, inputOrder, menu);
+    }
+
+    @Benchmark
+    public MenuLookup loadMenu() {
+        return menuLookupLoader.forInput(inputOrder);
+    }
+
+    /**
+     * {@code toEntity} runs {@code afterMappingToEntity}, so this covers item pricing and the cart total.
+     */
+    @Benchmark
+    public OrderEntity mapToEntity() throws DrinkNotFoundException {
+        return orderMapper.toEntity(user, inputOrder, menu);
+    }
+
+    /**
+     * Everything an order goes through before it is stored, with the menu resolved from the cached catalog.
+     */
+    @Benchmark
+    public OrderEntity priceOrder() throws DrinkNotFoundException {
+        OrderEntity entity = orderMapper.toEntity(user, inputOrder, menuLookupLoader.forInput(inputOrder));
+        discountCalculator.calculateDiscount(entity);
+
+        return entity;
+    }
+
+    @Benchmark
+    public BigDecimal calculateDiscount() {
+        return discountCalculator.calculateDiscount(order);
+    }
+
+    @Benchmark
+    public BigDecimal percentRule() {
+        return percentRule.apply(order);
+    }
+
+    @Benchmark
+    public BigDecimal freeItemRule() {
+        return freeItemRule.apply(order);
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.bse.backend.assignment.coffeestore.benchmark;
+
+import com.bse.backend.assignment.coffeestore.common.collection.LongObjectMap;
+import com.bse.backend.assignment.coffeestore.drink.api.model.Drink;
+import com.bse.backend.assignment.coffeestore.drink.internal.DrinkCache;
+import com.bse.backend.assignment.coffeestore.drink.internal.DrinkMapperImpl;
+import com.bse.backend.assignment.coffeestore.drink.internal.DrinkServiceImpl;
+import com.bse.backend.assignment.coffeestore.drink.internal.persistence.DrinkEntity;
+import com.bse.backend.assignment.coffeestore.drink.internal.persistence.DrinkRepository;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.internal.discount.DiscountCalculator;
+import com.bse.backend.assignment.coffeestore.order.internal.discount.rule.DiscountRule;
+import com.bse.backend.assignment.coffeestore.order.internal.discount.rule.DiscountRule25Percent;
+import com.bse.backend.assignment.coffeestore.order.internal.discount.rule.DiscountRuleFreeItem;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.MenuLookup;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.MenuLookupLoader;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.OrderItemMapperImpl;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.OrderMapper;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.OrderMapperImpl;
+import com.bse.backend.assignment.coffeestore.topping.api.model.Topping;
+import com.bse.backend.assignment.coffeestore.topping.internal.ToppingCache;
+import com.bse.backend.assignment.coffeestore.topping.internal.ToppingMapperImpl;
+import com.bse.backend.assignment.coffeestore.topping.internal.ToppingServiceImpl;
+import com.bse.backend.assignment.coffeestore.topping.internal.persistence.ToppingEntity;
+import com.bse.backend.assignment.coffeestore.topping.internal.persistence.ToppingRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds the pricing components the way Spring wires them, without starting an application context,
+ * and synthetic orders over the seeded menu.
+ */
+final class PricingFixtures {
+
+    static final List<Drink> DRINKS = List.of(
+            new Drink(1L, "Black Coffee", new BigDecimal("4.00")),
+            new Drink(2L, "Latte", new BigDecimal("5.00")),
+            new Drink(3L, "Mocha", new BigDecimal("6.00")),
+            new Drink(4L, "Tea", new BigDecimal("3.00")));
+
+    static final List<Topping> TOPPINGS = List.of(
+            new Topping(1L, "Milk", new BigDecimal("2.00")),
+            new Topping(2L, "Hazelnut syrup", new BigDecimal("3.00")),
+            new Topping(3L, "Chocolate sauce", new BigDecimal("5.00")),
+            new Topping(4L, "Lemon", new BigDecimal("2.00")));
+
+    private static final int MAX_TOPPINGS_PER_ITEM = 3;
+
+    private PricingFixtures() {
+    }
+
+    static MenuLookup menu() {
+        LongObjectMap<Drink> drinks = new LongObjectMap<>(DRINKS.size());
+        DRINKS.forEach(drink -> drinks.put(drink.getId(), drink));
+        LongObjectMap<Topping> toppings = new LongObjectMap<>(TOPPINGS.size());
+        TOPPINGS.forEach(topping -> toppings.put(topping.getId(), topping));
+
+        return new MenuLookup(drinks, toppings);
+    }
+
+    /**
+     * A loader over the real drink and topping services, with their caches filled from the fixtures above
+     * instead of the database, so it resolves ids the way it does once the application is warmed up.
+     */
+    static MenuLookupLoader menuLookupLoader() {
+        PlatformTransactionManager transactionManager = new NoOpTransactionManager();
+
+        DrinkMapperImpl drinkMapper = new DrinkMapperImpl();
+        List<DrinkEntity> drinkEntities = DRINKS.stream()
+                .map(drink -> new DrinkEntity(drink.getId(), drink.getName(), drink.getPrice()))
+                .toList();
+        DrinkRepository drinkRepository = findAllRepository(DrinkRepository.class, drinkEntities);
+        DrinkCache drinkCache = new DrinkCache(drinkRepository, drinkMapper, transactionManager);
+        drinkCache.reload();
+
+        ToppingMapperImpl toppingMapper = new ToppingMapperImpl();
+        List<ToppingEntity> toppingEntities = TOPPINGS.stream()
+                .map(topping -> new ToppingEntity(topping.getId(), topping.getName(), topping.getPrice()))
+                .toList();
+        ToppingRepository toppingRepository = findAllRepository(ToppingRepository.class, toppingEntities);
+        ToppingCache toppingCache = new ToppingCache(toppingRepository, toppingMapper, transactionManager);
+        toppingCache.reload();
+
+        return new MenuLookupLoader(
+                new DrinkServiceImpl(drinkRepository, drinkMapper, drinkCache),
+                new ToppingServiceImpl(toppingRepository, toppingMapper, toppingCache));
+    }
+
+    static OrderMapper orderMapper() {
+        OrderMapperImpl mapper = new OrderMapperImpl();
+        ReflectionTestUtils.setField(mapper, "orderItemMapper", new OrderItemMapperImpl());
+
+        return mapper;
+    }
+
+    static DiscountRule25Percent percentRule() {
+        DiscountRule25Percent rule = new DiscountRule25Percent();
+        ReflectionTestUtils.setField(rule, "threshold", BigDecimal.valueOf(12));
+        ReflectionTestUtils.setField(rule, "discountPercent", new BigDecimal("0.25"));
+
+        return rule;
+    }
+
+    static DiscountRuleFreeItem freeItemRule() {
+        DiscountRuleFreeItem rule = new DiscountRuleFreeItem();
+        ReflectionTestUtils.setField(rule, "minItems", 3);
+
+        return rule;
+    }
+
+    static DiscountCalculator discountCalculator() {
+        List<DiscountRule> rules = List.of(percentRule(), freeItemRule());
+
+        return new DiscountCalculator(rules);
+    }
+
+    /**
+     * Build an order with random drinks and up to three toppings per item; the seed keeps runs comparable.
+     */
+    static InputOrder inputOrder(int itemCount, long seed) {
+        Random random = new Random(seed);
+        List<InputOrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            int toppingCount = random.nextInt(MAX_TOPPINGS_PER_ITEM + 1);
+            List<Long> toppingIds = new ArrayList<>(toppingCount);
+            for (int j = 0; j < toppingCount; j++) {
+                toppingIds.add(TOPPINGS.get(random.nextInt(TOPPINGS.size())).getId());
+            }
+
+            items.add(InputOrderItem.builder()
+                    .drinkId(DRINKS.get(random.nextInt(DRINKS.size())).getId())
+                    .toppingIds(toppingIds)
+                    .build());
+        }
+
+        return InputOrder.builder().items(items).build();
+    }
+
+    /**
+     * A repository that only answers {@code findAll}, which is all the caches call.
+     */
+    private static <R> R findAllRepository(Class<R> type, List<?> entities) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAll")) return entities;
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+
+    }
+
+}
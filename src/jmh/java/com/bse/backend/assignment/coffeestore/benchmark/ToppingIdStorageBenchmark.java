@@ -0,0 +1,177 @@
+package com.bse.backend.assignment.coffeestore.benchmark;
+
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
+import com.bse.backend.assignment.coffeestore.common.collection.PackedLongs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The two ways of storing the topping ids of order items, on a million items in an H2 file database:
+ * one row per id in a collection table, as Hibernate maps an element collection, and the ids packed into
+ * a binary column of the items. The setup prints the disk space each layout takes; the benchmarks read
+ * the topping ids of a page of items in each layout.
+ */
+@State(Scope.Benchmark)
+public class ToppingIdStorageBenchmark {
+
+    private static final int ITEM_COUNT = 1_000_000;
+    private static final int PAGE_SIZE = 1_000;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final long SEED = 42L;
+    private static final Path DATABASE = Path.of("target", "topping-id-storage");
+
+    private final Random random = new Random(SEED);
+
+    private Connection connection;
+    private PreparedStatement collectionPage;
+    private PreparedStatement packedPage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Files.deleteIfExists(Path.of(DATABASE + ".mv.db"));
+        connection = DriverManager.getConnection("jdbc:h2:file:" + DATABASE.toAbsolutePath());
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE collection_items (id BIGINT PRIMARY KEY, drink_id BIGINT)");
+            statement.execute("CREATE TABLE collection_topping_ids (order_item_entity_id BIGINT NOT NULL "
+                    + "REFERENCES collection_items (id), topping_ids BIGINT)");
+            statement.execute("CREATE TABLE packed_items "
+                    + "(id BIGINT PRIMARY KEY, drink_id BIGINT, topping_ids VARBINARY(1024))");
+        }
+        fill();
+        try (Statement statement = connection.createStatement()) {
+            // Write out all pending pages, so the sizes do not depend on what is still held in memory
+            statement.execute("CHECKPOINT SYNC");
+        }
+
+        System.out.printf("%nDisk space for %,d items: collection table %,d bytes, packed column %,d bytes%n",
+                ITEM_COUNT,
+                diskSpace("COLLECTION_ITEMS") + diskSpace("COLLECTION_TOPPING_IDS"),
+                diskSpace("PACKED_ITEMS"));
+
+        collectionPage = connection.prepareStatement("SELECT i.id, t.topping_ids FROM collection_items i "
+                + "LEFT JOIN collection_topping_ids t ON t.order_item_entity_id = i.id "
+                + "WHERE i.id BETWEEN ? AND ? ORDER BY i.id, t._ROWID_");
+        packedPage = connection.prepareStatement(
+                "SELECT id, topping_ids FROM packed_items WHERE id BETWEEN ? AND ? ORDER BY id");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * Reads a page of items with their topping ids boxed into a list per item, as the element collection did.
+     */
+    @Benchmark
+    public long readCollectionTable() throws SQLException {
+        long firstId = nextPage();
+        collectionPage.setLong(1, firstId);
+        collectionPage.setLong(2, firstId + PAGE_SIZE - 1);
+
+        long checksum = 0;
+        List<List<Long>> items = new ArrayList<>(PAGE_SIZE);
+        try (ResultSet rs = collectionPage.executeQuery()) {
+            long currentId = -1;
+            List<Long> toppingIds = null;
+            while (rs.next()) {
+                long id = rs.getLong(1);
+                if (id != currentId) {
+                    toppingIds = new ArrayList<>();
+                    items.add(toppingIds);
+                    currentId = id;
+                }
+                long toppingId = rs.getLong(2);
+                if (!rs.wasNull()) toppingIds.add(toppingId);
+            }
+        }
+        for (List<Long> toppingIds : items) {
+            for (Long toppingId : toppingIds) checksum += toppingId;
+        }
+
+        return checksum;
+    }
+
+    @Benchmark
+    public long readPackedColumn() throws SQLException {
+        long firstId = nextPage();
+        packedPage.setLong(1, firstId);
+        packedPage.setLong(2, firstId + PAGE_SIZE - 1);
+
+        long checksum = 0;
+        try (ResultSet rs = packedPage.executeQuery()) {
+            while (rs.next()) {
+                LongList toppingIds = PackedLongs.unpack(rs.getBytes(2));
+                for (int i = 0; i < toppingIds.size(); i++) checksum += toppingIds.get(i);
+            }
+        }
+
+        return checksum;
+    }
+
+    private long nextPage() {
+        return 1 + (long) random.nextInt(ITEM_COUNT / PAGE_SIZE) * PAGE_SIZE;
+    }
+
+    private void fill() throws SQLException {
+        Random data = new Random(SEED);
+        try (PreparedStatement collectionItem = connection.prepareStatement(
+                "INSERT INTO collection_items VALUES (?, ?)");
+             PreparedStatement collectionToppingId = connection.prepareStatement(
+                     "INSERT INTO collection_topping_ids VALUES (?, ?)");
+             PreparedStatement packedItem = connection.prepareStatement(
+                     "INSERT INTO packed_items VALUES (?, ?, ?)")) {
+            for (long id = 1; id <= ITEM_COUNT; id++) {
+                long drinkId = 1 + data.nextInt(4);
+                long[] toppingIds = new long[data.nextInt(4)];
+                for (int i = 0; i < toppingIds.length; i++) toppingIds[i] = 1 + data.nextInt(4);
+
+                collectionItem.setLong(1, id);
+                collectionItem.setLong(2, drinkId);
+                collectionItem.addBatch();
+                for (long toppingId : toppingIds) {
+                    collectionToppingId.setLong(1, id);
+                    collectionToppingId.setLong(2, toppingId);
+                    collectionToppingId.addBatch();
+                }
+                packedItem.setLong(1, id);
+                packedItem.setLong(2, drinkId);
+                packedItem.setBytes(3, PackedLongs.pack(LongList.of(toppingIds)));
+                packedItem.addBatch();
+
+                if (id % INSERT_BATCH_SIZE == 0) {
+                    collectionItem.executeBatch();
+                    collectionToppingId.executeBatch();
+                    packedItem.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+    }
+
+    private long diskSpace(String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT DISK_SPACE_USED('" + table + "')")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+}
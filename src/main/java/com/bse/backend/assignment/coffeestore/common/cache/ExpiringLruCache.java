@@ -0,0 +1,192 @@
+package com.bse.backend.assignment.coffeestore.common.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded in-memory cache that evicts the least recently used entry when full and drops entries once
+ * their time to live has passed. Every entry expires after the configured TTL at the latest, or earlier
+ * if it is put with its own deadline.
+ * <p>
+ * Hits, misses and evictions are counted per cause, so the hit ratio and the churn can be watched to size the cache.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the cached values.
+ */
+public class ExpiringLruCache<K, V> implements MeterBinder {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // Every authenticated request goes through here; threads waiting on a monitor would pin virtual thread carriers
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ExpiringLruCache(String name, int maxSize, Duration ttl, Clock clock) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= ExpiringLruCache.this.maxSize) return false;
+
+                sizeEvictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value, or an empty optional if there is none or it has expired.
+     */
+    public Optional<V> get(K key) {
+        Entry<V> entry;
+        lock.lock();
+        try {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt() <= clock.millis()) {
+                entries.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(entry.value());
+    }
+
+    /**
+     * Returns the cached value and restarts its time to live, so entries read or written regularly stay cached
+     * and entries left alone for the configured TTL expire.
+     */
+    public Optional<V> getAndRefresh(K key) {
+        Entry<V> entry;
+        lock.lock();
+        try {
+            long now = clock.millis();
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt() <= now) {
+                entries.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+            if (entry != null) entries.put(key, new Entry<>(entry.value(), now + ttlMillis));
+        } finally {
+            lock.unlock();
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(entry.value());
+    }
+
+    /**
+     * Caches a value for the configured time to live.
+     */
+    public void put(K key, V value) {
+        put(key, value, null);
+    }
+
+    /**
+     * Caches a value for the configured time to live, but no longer than the given deadline.
+     *
+     * @param notAfter The latest time the value may be returned, or {@code null} for no deadline of its own.
+     */
+    public void put(K key, V value, Instant notAfter) {
+        long now = clock.millis();
+        long expiresAt = now + ttlMillis;
+        if (notAfter != null) expiresAt = Math.min(expiresAt, notAfter.toEpochMilli());
+        if (expiresAt <= now) return;
+
+        lock.lock();
+        try {
+            entries.put(key, new Entry<>(value, expiresAt));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the value cached for a key, if any.
+     */
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            if (entries.remove(key) != null) invalidations.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("coffee-store.cache.hits", hits, LongAdder::doubleValue)
+                .tag("cache", name)
+                .description("Reads served from the cache")
+                .register(registry);
+        FunctionCounter.builder("coffee-store.cache.misses", misses, LongAdder::doubleValue)
+                .tag("cache", name)
+                .description("Reads that found no live entry")
+                .register(registry);
+        bindEvictions(registry, "size", sizeEvictions);
+        bindEvictions(registry, "expired", expirations);
+        bindEvictions(registry, "explicit", invalidations);
+        Gauge.builder("coffee-store.cache.size", this, ExpiringLruCache::size)
+                .tag("cache", name)
+                .description("Number of cached entries")
+                .register(registry);
+    }
+
+    private void bindEvictions(MeterRegistry registry, String cause, LongAdder counter) {
+        FunctionCounter.builder("coffee-store.cache.evictions", counter, LongAdder::doubleValue)
+                .tag("cache", name)
+                .tag("cause", cause)
+                .description("Entries removed from the cache")
+                .register(registry);
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+}
@@ -0,0 +1,214 @@
+package com.bse.backend.assignment.coffeestore.common.cache;
+
+import com.bse.backend.assignment.coffeestore.common.collection.LongObjectMap;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.lang.NonNull;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A read-mostly cache holding an immutable id to value snapshot of a small table, such as the menu.
+ * <p>
+ * Readers never block: they read the current snapshot through a volatile reference.
+ * Writers call {@link #markModified()} inside their transaction; once it commits, the whole table is
+ * reloaded in a new transaction and swapped in atomically under a new version number. Until then, reads
+ * made by the modifying transaction itself bypass the snapshot, so it always sees its own changes.
+ *
+ * @param <V> The type of the cached values.
+ */
+@Log4j2
+public class VersionedSnapshotCache<V> implements MeterBinder {
+
+    private final String name;
+    private final Supplier<List<V>> loader;
+    private final Function<V, Long> idExtractor;
+    private final TransactionTemplate loadTransaction;
+    private final Object modifiedKey = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong reloads = new AtomicLong();
+    // Not synchronized: a reload blocks on JDBC, which would pin the carrier of a virtual thread
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Snapshot<V> snapshot;
+
+    public VersionedSnapshotCache(
+            String name,
+            Supplier<List<V>> loader,
+            Function<V, Long> idExtractor,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.name = name;
+        this.loader = loader;
+        this.idExtractor = idExtractor;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Not read-only: read-only transactions may be served by a lagging replica, and a reload right after
+        // a commit must see that commit
+    }
+
+    /**
+     * Returns the current id to value snapshot, or an empty optional when the caller must read the
+     * database instead because the current transaction has modified the cached table.
+     */
+    public Optional<Map<Long, V>> read() {
+        Snapshot<V> current = current();
+        return current == null ? Optional.empty() : Optional.of(current.values());
+    }
+
+    /**
+     * Same as {@link #read()}, keyed by primitive ids so that lookups do not box them. The map is shared by
+     * all readers of the snapshot and must not be modified.
+     */
+    public Optional<LongObjectMap<V>> readById() {
+        Snapshot<V> current = current();
+        return current == null ? Optional.empty() : Optional.of(current.byId());
+    }
+
+    /**
+     * Returns the version of the current snapshot; it changes every time the snapshot is reloaded.
+     */
+    public long getVersion() {
+        Snapshot<V> current = snapshot;
+        return current == null ? 0 : current.version();
+    }
+
+    /**
+     * Returns the version of the snapshot that {@link #read()} serves, loading it first if needed, or an empty
+     * optional when the current transaction has modified the cached table and reads bypass the snapshot.
+     */
+    public OptionalLong readVersion() {
+        if (TransactionSynchronizationManager.hasResource(modifiedKey)) return OptionalLong.empty();
+
+        Snapshot<V> current = snapshot;
+        if (current == null) current = reload();
+
+        return OptionalLong.of(current.version());
+    }
+
+    /**
+     * @return The current snapshot, or {@code null} when the current transaction must bypass it.
+     */
+    private Snapshot<V> current() {
+        if (TransactionSynchronizationManager.hasResource(modifiedKey)) {
+            misses.increment();
+            return null;
+        }
+
+        Snapshot<V> current = snapshot;
+        if (current == null) current = reload();
+
+        hits.increment();
+        return current;
+    }
+
+    /**
+     * Records that the current transaction modifies the cached table. The snapshot is reloaded after the
+     * transaction commits and is left untouched if it rolls back.
+     */
+    public void markModified() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(modifiedKey)) return;
+
+        TransactionSynchronizationManager.bindResource(modifiedKey, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                TransactionSynchronizationManager.unbindResourceIfPossible(modifiedKey);
+                reload();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(modifiedKey);
+            }
+        });
+    }
+
+    /**
+     * Loads the whole table and atomically replaces the current snapshot.
+     *
+     * @return The new snapshot.
+     */
+    public Snapshot<V> reload() {
+        reloadLock.lock();
+        try {
+            List<V> values = loadTransaction.execute(status -> loader.get());
+
+            Map<Long, V> byId = new LinkedHashMap<>();
+            LongObjectMap<V> byPrimitiveId = new LongObjectMap<>(values == null ? 0 : values.size());
+            if (values != null) {
+                for (V value : values) {
+                    Long id = idExtractor.apply(value);
+                    byId.put(id, value);
+                    byPrimitiveId.put(id, value);
+                }
+            }
+
+            Snapshot<V> previous = snapshot;
+            Snapshot<V> next = new Snapshot<>(previous == null ? 1 : previous.version() + 1,
+                    Collections.unmodifiableMap(byId), byPrimitiveId);
+            snapshot = next;
+            reloads.incrementAndGet();
+            log.debug("Cache {} reloaded with {} entries, version {}", name, byId.size(), next.version());
+
+            return next;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("coffee-store.cache.hits", hits, LongAdder::doubleValue)
+                .tag("cache", name)
+                .description("Reads served from the in-memory snapshot")
+                .register(registry);
+        FunctionCounter.builder("coffee-store.cache.misses", misses, LongAdder::doubleValue)
+                .tag("cache", name)
+                .description("Reads that had to go to the database")
+                .register(registry);
+        FunctionCounter.builder("coffee-store.cache.reloads", reloads, AtomicLong::doubleValue)
+                .tag("cache", name)
+                .description("Number of snapshot reloads")
+                .register(registry);
+        Gauge.builder("coffee-store.cache.version", this, VersionedSnapshotCache::getVersion)
+                .tag("cache", name)
+                .description("Version of the current snapshot")
+                .register(registry);
+    }
+
+    /**
+     * An immutable snapshot of the cached table.
+     *
+     * @param version The version of the snapshot.
+     * @param values  The cached values by id, in load order.
+     * @param byId    The same values by primitive id; never modified once the snapshot is published.
+     */
+    public record Snapshot<V>(long version, Map<Long, V> values, LongObjectMap<V> byId) {
+    }
+
+}
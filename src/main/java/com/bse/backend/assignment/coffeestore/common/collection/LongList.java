@@ -0,0 +1,110 @@
+package com.bse.backend.assignment.coffeestore.common.collection;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * An immutable list of primitive longs backed by a {@code long[]}, for ids that would otherwise be held as a
+ * {@code List<Long>} with one boxed object per element. Two lists are equal when they hold the same values in the
+ * same order.
+ */
+public final class LongList {
+
+    private static final LongList EMPTY = new LongList(new long[0]);
+
+    private final long[] values;
+
+    private LongList(long[] values) {
+        this.values = values;
+    }
+
+    public static LongList of() {
+        return EMPTY;
+    }
+
+    public static LongList of(long... values) {
+        return values.length == 0 ? EMPTY : new LongList(values.clone());
+    }
+
+    /**
+     * @param values The values to copy; {@code null} elements are not allowed.
+     * @return A list with the values in iteration order, or the empty list if {@code values} is {@code null}.
+     */
+    public static LongList copyOf(Collection<Long> values) {
+        if (values == null || values.isEmpty()) return EMPTY;
+
+        long[] copy = new long[values.size()];
+        int i = 0;
+        for (Long value : values) copy[i++] = value;
+
+        return new LongList(copy);
+    }
+
+    /**
+     * Wraps the array without copying it; the caller must not modify it afterwards.
+     */
+    static LongList wrap(long[] values) {
+        return values.length == 0 ? EMPTY : new LongList(values);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    public long get(int index) {
+        return values[index];
+    }
+
+    public boolean contains(long value) {
+        for (long v : values) {
+            if (v == value) return true;
+        }
+
+        return false;
+    }
+
+    public void forEach(LongConsumer action) {
+        for (long value : values) action.accept(value);
+    }
+
+    public LongStream stream() {
+        return Arrays.stream(values);
+    }
+
+    public long[] toArray() {
+        return values.clone();
+    }
+
+    /**
+     * @return The values as boxed longs, for the JSON boundary.
+     */
+    public List<Long> boxed() {
+        return stream().boxed().toList();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LongList other)) return false;
+
+        return Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+
+}
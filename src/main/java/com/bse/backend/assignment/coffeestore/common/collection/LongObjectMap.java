@@ -0,0 +1,100 @@
+package com.bse.backend.assignment.coffeestore.common.collection;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A growable map from primitive long keys to objects that keeps insertion order, for id lookups that would
+ * otherwise box every key of a {@code Map<Long, V>} on each get. Laid out like {@link LongSet}: keys and values
+ * in dense arrays, found through an open addressing table of their positions. Null values are not allowed,
+ * so {@link #get(long)} returning {@code null} always means the key is absent.
+ *
+ * @param <V> The type of the values.
+ */
+public final class LongObjectMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private long[] keys;
+    private Object[] values;
+    private int[] slots;
+    private int size;
+
+    public LongObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongObjectMap(int expectedSize) {
+        keys = new long[Math.max(expectedSize, 1)];
+        values = new Object[keys.length];
+        slots = new int[LongSet.tableSize(expectedSize)];
+    }
+
+    /**
+     * @return The value previously mapped to the key, or {@code null} if there was none.
+     */
+    public V put(long key, V value) {
+        Objects.requireNonNull(value, "value");
+
+        int slot = LongSet.findSlot(slots, keys, key);
+        if (slots[slot] != 0) {
+            V previous = valueAt(slots[slot] - 1);
+            values[slots[slot] - 1] = value;
+            return previous;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size++] = value;
+        slots[slot] = size;
+        if (size * 2 > slots.length) rehash();
+
+        return null;
+    }
+
+    public V get(long key) {
+        int position = slots[LongSet.findSlot(slots, keys, key)];
+
+        return position == 0 ? null : valueAt(position - 1);
+    }
+
+    public boolean containsKey(long key) {
+        return slots[LongSet.findSlot(slots, keys, key)] != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(keys[i]).append('=').append(values[i]);
+        }
+
+        return builder.append('}').toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int position) {
+        return (V) values[position];
+    }
+
+    private void rehash() {
+        int[] table = new int[slots.length * 2];
+        for (int i = 0; i < size; i++) {
+            table[LongSet.findSlot(table, keys, keys[i])] = i + 1;
+        }
+        slots = table;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.bse.backend.assignment.coffeestore.common.collection;
+
+import java.util.Arrays;
+
+/**
+ * A growable set of primitive longs that keeps insertion order, for gathering ids without boxing each of them
+ * into a {@code Set<Long>}. The values are held in a dense array and found through an open addressing table of
+ * their positions, so every long value can be stored and iteration is a plain array walk.
+ */
+public final class LongSet {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private long[] values;
+    private int[] slots;
+    private int size;
+
+    public LongSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongSet(int expectedSize) {
+        values = new long[Math.max(expectedSize, 1)];
+        slots = new int[tableSize(expectedSize)];
+    }
+
+    /**
+     * @return {@code true} if the value was not in the set yet.
+     */
+    public boolean add(long value) {
+        int slot = findSlot(slots, values, value);
+        if (slots[slot] != 0) return false;
+
+        if (size == values.length) values = Arrays.copyOf(values, size * 2);
+        values[size++] = value;
+        slots[slot] = size;
+        if (size * 2 > slots.length) rehash();
+
+        return true;
+    }
+
+    public void addAll(LongList list) {
+        for (int i = 0; i < list.size(); i++) add(list.get(i));
+    }
+
+    public boolean contains(long value) {
+        return slots[findSlot(slots, values, value)] != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return The values in insertion order.
+     */
+    public LongList toList() {
+        return LongList.wrap(Arrays.copyOf(values, size));
+    }
+
+    /**
+     * @return The values in ascending order.
+     */
+    public LongList toSortedList() {
+        long[] sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+
+        return LongList.wrap(sorted);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(Arrays.copyOf(values, size));
+    }
+
+    private void rehash() {
+        int[] table = new int[slots.length * 2];
+        for (int i = 0; i < size; i++) {
+            table[findSlot(table, values, values[i])] = i + 1;
+        }
+        slots = table;
+    }
+
+    /**
+     * Power of two size that keeps the table at most half full.
+     */
+    static int tableSize(int expectedSize) {
+        return Integer.highestOneBit(Math.max(expectedSize, 2) * 4 - 1);
+    }
+
+    static int hash(long value) {
+        long mixed = value * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    /**
+     * Linear probing over a table of positions into {@code keys}, offset by one so that zero marks a free slot.
+     *
+     * @return The slot holding the value, or the free slot where it belongs.
+     */
+    static int findSlot(int[] table, long[] keys, long value) {
+        int mask = table.length - 1;
+        int slot = hash(value) & mask;
+        while (table[slot] != 0 && keys[table[slot] - 1] != value) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+}
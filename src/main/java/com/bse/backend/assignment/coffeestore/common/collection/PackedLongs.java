@@ -0,0 +1,72 @@
+package com.bse.backend.assignment.coffeestore.common.collection;
+
+import java.util.Arrays;
+
+/**
+ * Packs a {@link LongList} into bytes: every value is stored as the difference to the value before it,
+ * zigzag encoded so that small negative differences stay small, in a variable-length encoding of seven bits
+ * per byte. Ids of a small table take one or two bytes each instead of eight, and the order of the values
+ * and duplicates are kept.
+ */
+public final class PackedLongs {
+
+    /**
+     * The longest encoding of a value: 64 bits in groups of seven.
+     */
+    public static final int MAX_BYTES_PER_VALUE = 10;
+
+    private PackedLongs() {
+    }
+
+    public static byte[] pack(LongList list) {
+        byte[] buffer = new byte[list.size() * MAX_BYTES_PER_VALUE];
+        int position = 0;
+        long previous = 0;
+        for (int i = 0; i < list.size(); i++) {
+            long value = list.get(i);
+            long delta = value - previous;
+            long zigzag = (delta << 1) ^ (delta >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            buffer[position++] = (byte) zigzag;
+            previous = value;
+        }
+
+        return Arrays.copyOf(buffer, position);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes end in the middle of a value.
+     */
+    public static LongList unpack(byte[] bytes) {
+        // Every value ends with the one byte that has the continuation bit cleared
+        int count = 0;
+        for (byte b : bytes) {
+            if (b >= 0) count++;
+        }
+        if (bytes.length > 0 && bytes[bytes.length - 1] < 0) {
+            throw new IllegalArgumentException("Packed longs end in the middle of a value");
+        }
+
+        long[] values = new long[count];
+        int position = 0;
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                zigzag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            values[i] = previous;
+        }
+
+        return LongList.wrap(values);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.bse.backend.assignment.coffeestore.common.config;
+
+import com.bse.backend.assignment.coffeestore.common.persistence.PooledSequenceGenerator;
+import com.bse.backend.assignment.coffeestore.common.persistence.SequenceAlignment;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.id.SequenceMismatchStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Passes {@code coffee-store.persistence.id-allocation-size} on to the {@link PooledSequenceGenerator}s.
+ * <p>
+ * A sequence created with a different allocation size is only logged by Hibernate instead of failing the startup:
+ * {@link SequenceAlignment} changes its increment to the allocation size before any id is taken from it.
+ */
+@Configuration
+public class IdGenerationConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer idAllocationSizeCustomizer(
+            @Value("${coffee-store.persistence.id-allocation-size:" + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE
+                    + "}") int allocationSize) {
+        return properties -> {
+            properties.put(PooledSequenceGenerator.ALLOCATION_SIZE_SETTING, allocationSize);
+            properties.putIfAbsent(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY,
+                    SequenceMismatchStrategy.LOG);
+        };
+    }
+
+}
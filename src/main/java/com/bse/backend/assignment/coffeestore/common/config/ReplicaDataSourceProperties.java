@@ -0,0 +1,17 @@
+package com.bse.backend.assignment.coffeestore.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties("coffee-store.datasource.replica")
+@Data
+public class ReplicaDataSourceProperties {
+    private boolean enabled = false;
+    private String driverClassName;
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+}
@@ -0,0 +1,13 @@
+package com.bse.backend.assignment.coffeestore.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@link org.springframework.scheduling.annotation.Scheduled} housekeeping tasks, such as purging
+ * expired idempotency keys.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
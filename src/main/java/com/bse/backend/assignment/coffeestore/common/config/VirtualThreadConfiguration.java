@@ -0,0 +1,30 @@
+package com.bse.backend.assignment.coffeestore.common.config;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Serves requests on virtual threads instead of the Tomcat worker pool when {@code spring.threads.virtual.enabled}
+ * is set. A request blocked on JDBC then parks its virtual thread and frees the carrier thread, so concurrency is
+ * bounded by the connection pool rather than by the number of worker threads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Log4j2
+public class VirtualThreadConfiguration {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            protocolHandler.setExecutor(Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("http-virtual-", 0).factory()));
+            log.info("Tomcat requests are served on virtual threads");
+        };
+    }
+
+}
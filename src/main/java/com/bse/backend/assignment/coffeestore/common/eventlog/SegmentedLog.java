@@ -0,0 +1,470 @@
+package com.bse.backend.assignment.coffeestore.common.eventlog;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * An append-only log of binary records in memory-mapped segment files. Every record gets the next sequence
+ * number; readers tail the log from any retained sequence number and get the payloads as read-only slices of
+ * the mapped segments, without copying them or going through the file system.
+ * <p>
+ * A record is a header of its payload length, sequence number and append time, followed by the payload. The
+ * length is written last, so a record whose write has not finished reads as the end of the segment, both for
+ * concurrent readers and when the log is opened again after the process died. Records are written to the page
+ * cache only; the operating system writes them to disk, so a power loss may lose the latest records.
+ * <p>
+ * A segment is rolled when the next record does not fit into it, or on the first append once its first record is
+ * older than the roll interval. Rolled segments are deleted oldest first by {@link #deleteExpired}. There is a
+ * single writer at a time; any number of threads may read concurrently.
+ */
+@Log4j2
+public final class SegmentedLog implements Closeable {
+
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Long.BYTES;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String LOCK_FILE = ".lock";
+    /**
+     * Records between two entries of the sparse position index of a segment.
+     */
+    private static final int INDEX_INTERVAL = 32;
+    /**
+     * Closing a second channel to the lock file would release the file lock of the first one on some platforms,
+     * so logs open in this JVM are not locked a second time.
+     */
+    private static final Set<Path> OPEN_DIRECTORIES = ConcurrentHashMap.newKeySet();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long rollIntervalMillis;
+    private final Clock clock;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    /**
+     * Replaced as a whole under the writer lock, so readers can walk it without locking.
+     */
+    private volatile Segment[] segments = new Segment[0];
+    private volatile long nextSequence;
+    private boolean closed;
+
+    private SegmentedLog(Path directory, int segmentSize, Duration rollInterval, Clock clock,
+                         FileChannel lockChannel, FileLock lock) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.rollIntervalMillis = rollInterval.toMillis();
+        this.clock = clock;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+    }
+
+    /**
+     * Open the log in the directory, recovering the records of existing segments, or start an empty one.
+     *
+     * @param segmentSize  The size of a segment file in bytes; it bounds the size of a single record.
+     * @param rollInterval The age of the first record of a segment after which the next record starts a new one.
+     * @throws IllegalStateException if the log is open already, in this or in another process.
+     */
+    public static SegmentedLog open(Path directory, int segmentSize, Duration rollInterval, Clock clock) {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size must be larger than " + HEADER_SIZE + " bytes");
+        }
+
+        Path key = directory.toAbsolutePath().normalize();
+        if (!OPEN_DIRECTORIES.add(key)) throw new IllegalStateException("Log in " + directory + " is open already");
+
+        FileChannel lockChannel = null;
+        try {
+            Files.createDirectories(directory);
+            lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = tryLock(lockChannel);
+            if (lock == null) throw new IllegalStateException("Log in " + directory + " is open elsewhere");
+
+            SegmentedLog opened = new SegmentedLog(directory, segmentSize, rollInterval, clock, lockChannel, lock);
+            opened.recover();
+
+            return opened;
+        } catch (IOException ex) {
+            closeQuietly(lockChannel);
+            OPEN_DIRECTORIES.remove(key);
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            closeQuietly(lockChannel);
+            OPEN_DIRECTORIES.remove(key);
+            throw ex;
+        }
+    }
+
+    /**
+     * Append a record.
+     *
+     * @return The sequence number of the record.
+     * @throws IllegalArgumentException if the payload is empty or does not fit into a segment.
+     */
+    public synchronized long append(ByteBuffer payload) {
+        if (closed) throw new IllegalStateException("Log in " + directory + " is closed");
+        int length = payload.remaining();
+        if (length == 0) throw new IllegalArgumentException("Records must not be empty");
+        if (HEADER_SIZE + length > segmentSize) {
+            throw new IllegalArgumentException("Record of " + length + " bytes does not fit into a segment");
+        }
+
+        long now = clock.millis();
+        Segment segment = activeSegment();
+        if (segment == null || !segment.writable || !segment.fits(length)
+                || (!segment.isEmpty() && now - segment.firstTimestamp >= rollIntervalMillis)) {
+            segment = roll();
+        }
+
+        long sequence = nextSequence;
+        segment.write(sequence, now, payload);
+        nextSequence = sequence + 1;
+
+        return sequence;
+    }
+
+    /**
+     * Read the records from the given sequence number on. If it has been deleted already, the records start at the
+     * first retained one, which the reader can tell from the sequence numbers it is given.
+     *
+     * @param maxRecords The maximum number of records to read.
+     * @param reader     Gets every record; the payload is a read-only view that must not be used after it returns.
+     * @return The sequence number to read from next.
+     */
+    public long read(long fromSequence, int maxRecords, RecordReader reader) {
+        Segment[] current = segments;
+        long end = nextSequence;
+        int first = findSegment(current, fromSequence);
+        long sequence = Math.max(fromSequence, current.length == 0 ? end : current[first].baseSequence);
+
+        int read = 0;
+        for (int i = first; i < current.length && read < maxRecords && sequence < end; i++) {
+            Segment segment = current[i];
+            if (sequence < segment.baseSequence) sequence = segment.baseSequence;
+            // The record count is published after the end position, so both cover the same records at least
+            if (sequence - segment.baseSequence >= segment.records) continue;
+
+            int position = segment.positionOf(sequence);
+            int segmentEnd = segment.end;
+            while (read < maxRecords && position < segmentEnd) {
+                ByteBuffer buffer = segment.buffer;
+                int length = buffer.getInt(position);
+                long timestamp = buffer.getLong(position + Integer.BYTES + Long.BYTES);
+                reader.read(sequence, timestamp, buffer.slice(position + HEADER_SIZE, length).asReadOnlyBuffer());
+
+                position += HEADER_SIZE + length;
+                sequence++;
+                read++;
+            }
+        }
+
+        return sequence;
+    }
+
+    /**
+     * @return The sequence number of the oldest retained record, or of the next record if the log is empty.
+     */
+    public long firstSequence() {
+        Segment[] current = segments;
+        return current.length == 0 ? nextSequence : current[0].baseSequence;
+    }
+
+    /**
+     * @return The sequence number the next appended record gets.
+     */
+    public long nextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * @return The bytes taken by the records of all retained segments.
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) size += segment.end;
+
+        return size;
+    }
+
+    /**
+     * Delete rolled segments, oldest first, while the retained records take more than the given size, and those
+     * whose last record is older than the given retention time. The segment written to is never deleted.
+     *
+     * @return The number of deleted segments.
+     */
+    public synchronized int deleteExpired(long retentionSize, Duration retentionTime) {
+        if (closed) return 0;
+
+        long size = size();
+        long expiredBefore = clock.millis() - retentionTime.toMillis();
+        int deleted = 0;
+        while (deleted < segments.length - 1) {
+            Segment oldest = segments[deleted];
+            if (size <= retentionSize && oldest.lastTimestamp >= expiredBefore) break;
+
+            size -= oldest.end;
+            deleted++;
+        }
+        if (deleted == 0) return 0;
+
+        Segment[] expired = Arrays.copyOfRange(segments, 0, deleted);
+        segments = Arrays.copyOfRange(segments, deleted, segments.length);
+        for (Segment segment : expired) {
+            // Readers holding a slice keep the mapping alive; the file is only unlinked
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException ex) {
+                log.warn("Could not delete log segment {}", segment.path, ex);
+            }
+        }
+        log.debug("Deleted {} log segments in {}, first retained sequence {}", deleted, directory, firstSequence());
+
+        return deleted;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+
+        closed = true;
+        Segment active = activeSegment();
+        if (active != null && active.writable) active.buffer.force();
+        try {
+            lock.release();
+        } catch (IOException ex) {
+            log.warn("Could not release the lock of log {}", directory, ex);
+        }
+        closeQuietly(lockChannel);
+        OPEN_DIRECTORIES.remove(directory.toAbsolutePath().normalize());
+    }
+
+    private Segment activeSegment() {
+        Segment[] current = segments;
+        return current.length == 0 ? null : current[current.length - 1];
+    }
+
+    private Segment roll() {
+        Segment active = activeSegment();
+        if (active != null && active.writable) active.buffer.force();
+
+        Path path = directory.resolve(String.format("%020d%s", nextSequence, SEGMENT_SUFFIX));
+        Segment segment = new Segment(path, nextSequence, map(path, FileChannel.MapMode.READ_WRITE, segmentSize), true);
+        Segment[] rolled = Arrays.copyOf(segments, segments.length + 1);
+        rolled[rolled.length - 1] = segment;
+        segments = rolled;
+        log.debug("Rolled log {} to segment {}", directory, path.getFileName());
+
+        return segment;
+    }
+
+    private void recover() throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        List<Segment> recovered = new ArrayList<>(paths.size());
+        long sequence = 0;
+        for (int i = 0; i < paths.size(); i++) {
+            Path path = paths.get(i);
+            String name = path.getFileName().toString();
+            long baseSequence = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            if (!recovered.isEmpty() && baseSequence != sequence) {
+                throw new IllegalStateException("Log segment " + path + " does not follow sequence " + sequence);
+            }
+
+            // Only the last segment is appended to; the others are mapped read-only and as large as they are
+            boolean last = i == paths.size() - 1;
+            long fileSize = Files.size(path);
+            MappedByteBuffer buffer = last
+                    ? map(path, FileChannel.MapMode.READ_WRITE, (int) Math.max(fileSize, segmentSize))
+                    : map(path, FileChannel.MapMode.READ_ONLY, (int) fileSize);
+            Segment segment = new Segment(path, baseSequence, buffer, last);
+            sequence = segment.scan();
+            recovered.add(segment);
+        }
+
+        segments = recovered.toArray(Segment[]::new);
+        nextSequence = sequence;
+        log.info("Opened log {} with {} segments, records {} to {}", directory, recovered.size(),
+                firstSequence(), nextSequence - 1);
+    }
+
+    /**
+     * @return The index of the segment holding the sequence number, or of the first one if it has been deleted.
+     */
+    private static int findSegment(Segment[] segments, long sequence) {
+        int low = 0;
+        int high = segments.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (segments[middle].baseSequence <= sequence) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return low;
+    }
+
+    private static MappedByteBuffer map(Path path, FileChannel.MapMode mode, int size) {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[] { StandardOpenOption.READ }
+                : new StandardOpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE };
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            return channel.map(mode, 0, size);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            return null;
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) return;
+
+        try {
+            closeable.close();
+        } catch (IOException ex) {
+            log.warn("Could not close {}", closeable, ex);
+        }
+    }
+
+    /**
+     * Gets the records of a {@link #read}.
+     */
+    @FunctionalInterface
+    public interface RecordReader {
+
+        /**
+         * @param sequence  The sequence number of the record.
+         * @param timestamp When the record has been appended, in milliseconds since the epoch.
+         * @param payload   A read-only view of the payload in the mapped segment.
+         */
+        void read(long sequence, long timestamp, ByteBuffer payload);
+
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long baseSequence;
+        private final MappedByteBuffer buffer;
+        private final boolean writable;
+
+        /**
+         * Positions of every {@link #INDEX_INTERVAL}th record; grown by the writer before it publishes the record.
+         */
+        private volatile int[] index = new int[16];
+        private volatile int end;
+        private volatile int records;
+        private long firstTimestamp;
+        private volatile long lastTimestamp;
+
+        private Segment(Path path, long baseSequence, MappedByteBuffer buffer, boolean writable) {
+            this.path = path;
+            this.baseSequence = baseSequence;
+            this.buffer = buffer;
+            this.writable = writable;
+        }
+
+        private boolean isEmpty() {
+            return records == 0;
+        }
+
+        private boolean fits(int length) {
+            return end + HEADER_SIZE + length <= buffer.capacity();
+        }
+
+        private void write(long sequence, long timestamp, ByteBuffer payload) {
+            int position = end;
+            buffer.putLong(position + Integer.BYTES, sequence);
+            buffer.putLong(position + Integer.BYTES + Long.BYTES, timestamp);
+            buffer.put(position + HEADER_SIZE, payload, payload.position(), payload.remaining());
+            // The length completes the record
+            buffer.putInt(position, payload.remaining());
+            indexRecord(position, timestamp);
+            end = position + HEADER_SIZE + payload.remaining();
+            records++;
+        }
+
+        /**
+         * Walk the records written before the log was opened.
+         *
+         * @return The sequence number after the last complete record.
+         */
+        private long scan() {
+            int position = 0;
+            long sequence = baseSequence;
+            while (position + HEADER_SIZE <= buffer.capacity()) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + HEADER_SIZE + length > buffer.capacity()
+                        || buffer.getLong(position + Integer.BYTES) != sequence) break;
+
+                indexRecord(position, buffer.getLong(position + Integer.BYTES + Long.BYTES));
+                position += HEADER_SIZE + length;
+                end = position;
+                records++;
+                sequence++;
+            }
+
+            return sequence;
+        }
+
+        private void indexRecord(int position, long timestamp) {
+            if (records % INDEX_INTERVAL == 0) {
+                int slot = records / INDEX_INTERVAL;
+                if (slot == index.length) index = Arrays.copyOf(index, slot * 2);
+                index[slot] = position;
+            }
+            if (records == 0) firstTimestamp = timestamp;
+            lastTimestamp = timestamp;
+        }
+
+        /**
+         * @return The position of the record, which must be in this segment and published.
+         */
+        private int positionOf(long sequence) {
+            long offset = sequence - baseSequence;
+            int[] positions = index;
+            int position = positions[(int) (offset / INDEX_INTERVAL)];
+            for (long skipped = offset % INDEX_INTERVAL; skipped > 0; skipped--) {
+                position += HEADER_SIZE + buffer.getInt(position);
+            }
+
+            return position;
+        }
+
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.bse.backend.assignment.coffeestore.common.exception;
+
+import java.io.Serial;
+
+/**
+ * This exception is thrown to indicate that a request is malformed in a way that bean validation cannot detect.
+ * It is typically used for invalid opaque values such as page tokens.
+ */
+public class BadRequestException extends Exception {
+
+    @Serial
+    private static final long serialVersionUID = -3268216458402563374L;
+
+    /**
+     * Constructs a new `BadRequestException` with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+}
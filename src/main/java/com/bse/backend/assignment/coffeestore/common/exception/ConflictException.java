@@ -0,0 +1,23 @@
+package com.bse.backend.assignment.coffeestore.common.exception;
+
+import java.io.Serial;
+
+/**
+ * This exception is thrown to indicate that a request conflicts with the current state of a resource.
+ * It is typically used when a resource has been modified since the version the request is based on.
+ */
+public class ConflictException extends Exception {
+
+    @Serial
+    private static final long serialVersionUID = 8044726618204377163L;
+
+    /**
+     * Constructs a new `ConflictException` with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public ConflictException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.bse.backend.assignment.coffeestore.common.persistence;
+
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
+import com.bse.backend.assignment.coffeestore.common.collection.PackedLongs;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a {@link LongList} in a single binary column packed by {@link PackedLongs}, instead of one row per value
+ * in a collection table that needs its own select on read and is deleted and reinserted on any change.
+ */
+@Converter
+public class PackedLongListConverter implements AttributeConverter<LongList, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(LongList attribute) {
+        return attribute == null ? null : PackedLongs.pack(attribute);
+    }
+
+    @Override
+    public LongList convertToEntityAttribute(byte[] dbData) {
+        return dbData == null ? null : PackedLongs.unpack(dbData);
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.bse.backend.assignment.coffeestore.common.persistence;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * A sequence generator whose allocation size is taken from the {@value #ALLOCATION_SIZE_SETTING} setting instead of
+ * being fixed in the mapping. Ids are handed out from pools of that size by the optimizer configured in
+ * {@code hibernate.id.optimizer.pooled.preferred}, so a sequence is only called once per pool and the inserts of
+ * new entities can be batched.
+ * <p>
+ * Map it with the name of the sequence:
+ * <pre>{@code
+ * @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+ * @GenericGenerator(name = "orders_seq", type = PooledSequenceGenerator.class,
+ *         parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "orders_seq"))
+ * }</pre>
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE_SETTING = "coffee_store.id.allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Object allocationSize = serviceRegistry.getService(ConfigurationService.class)
+                .getSettings()
+                .getOrDefault(ALLOCATION_SIZE_SETTING, DEFAULT_ALLOCATION_SIZE);
+        params.setProperty(INCREMENT_PARAM, allocationSize.toString());
+
+        super.configure(type, params, serviceRegistry);
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.bse.backend.assignment.coffeestore.common.persistence;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything else.
+ * <p>
+ * The transaction manager asks for a connection before it marks the transaction read-only, so this data source
+ * must sit behind a {@link LazyConnectionDataSourceProxy}, which only asks for the connection on the first
+ * statement. Reads made without a transaction go to the primary, including read-only {@code SUPPORTS} scopes
+ * that do not join one: the read-only flag is set for those as well.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+}
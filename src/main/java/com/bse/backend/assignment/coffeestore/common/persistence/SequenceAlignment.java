@@ -0,0 +1,64 @@
+package com.bse.backend.assignment.coffeestore.common.persistence;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves every entity id sequence past the highest id already stored in its table. Databases created while
+ * ids came from identity columns already hold rows that a fresh sequence would collide with.
+ * Also sets the increment of every sequence to the allocation size of its generator, as sequences created
+ * before the allocation size was changed still step by the old one and would hand out overlapping pools of ids.
+ * Runs once on startup, after the schema and the initial data are in place.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@Log4j2
+@RequiredArgsConstructor
+public class SequenceAlignment implements InitializingBean {
+
+    private static final String SEQUENCE_QUERY =
+            "SELECT BASE_VALUE, INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE UPPER(SEQUENCE_NAME) = UPPER(?)";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .forEachEntityDescriptor(descriptor -> {
+                    if (descriptor.getGenerator() instanceof SequenceStyleGenerator generator
+                            && descriptor instanceof AbstractEntityPersister persister) {
+                        align(generator.getDatabaseStructure().getPhysicalName().getObjectName().getText(),
+                                generator.getDatabaseStructure().getIncrementSize(),
+                                persister.getTableName(), persister.getIdentifierColumnNames()[0]);
+                    }
+                });
+    }
+
+    private void align(String sequence, int incrementSize, String table, String idColumn) {
+        long[] state = jdbcTemplate.query(SEQUENCE_QUERY,
+                rs -> rs.next() ? new long[] { rs.getLong(1), rs.getLong(2) } : null, sequence);
+        if (state == null) return;
+
+        if (state[1] != incrementSize) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + incrementSize);
+            log.info("Sequence {} now increments by {} instead of {}", sequence, incrementSize, state[1]);
+        }
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + idColumn + ") FROM " + table, Long.class);
+        if (maxId == null || state[0] > maxId) return;
+
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + 1));
+        log.info("Sequence {} restarted at {} to follow the existing ids of {}", sequence, maxId + 1, table);
+    }
+
+}
@@ -1,10 +1,12 @@
 package com.bse.backend.assignment.coffeestore.drink.api;
 
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
 import com.bse.backend.assignment.coffeestore.drink.api.exception.DrinkNotFoundException;
 import com.bse.backend.assignment.coffeestore.drink.api.model.Drink;
 import com.bse.backend.assignment.coffeestore.drink.api.model.InputDrink;
 
 import java.util.List;
+import java.util.OptionalLong;
 
 /**
  * A service interface for managing drinks.
@@ -28,6 +30,24 @@ public interface DrinkService {
      */
     Drink getDrinkById(Long id) throws DrinkNotFoundException;
 
+    /**
+     * Retrieves a list of drinks based on a list of unique identifiers.
+     * Identifiers that do not match any drink are ignored.
+     *
+     * @param ids A list of unique identifiers for the drinks to be retrieved.
+     * @return A list of drinks matching the given identifiers.
+     */
+    List<Drink> getAllDrinksById(LongList ids);
+
+    /**
+     * Returns the version of the drinks served by this service. It changes whenever any drink is created,
+     * updated or deleted, so it can be used to key values derived from the drinks.
+     *
+     * @return The current version, or an empty optional when the current transaction has modified drinks
+     * and no stable version exists.
+     */
+    OptionalLong getVersion();
+
     /**
      * Creates a new drink based on the provided input data.
      *
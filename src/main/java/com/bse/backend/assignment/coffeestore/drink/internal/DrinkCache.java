@@ -0,0 +1,27 @@
+package com.bse.backend.assignment.coffeestore.drink.internal;
+
+import com.bse.backend.assignment.coffeestore.common.cache.VersionedSnapshotCache;
+import com.bse.backend.assignment.coffeestore.drink.api.model.Drink;
+import com.bse.backend.assignment.coffeestore.drink.internal.persistence.DrinkRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * In-memory snapshot of all drinks, reloaded whenever a drink is created, updated or deleted.
+ */
+@Component
+public class DrinkCache extends VersionedSnapshotCache<Drink> {
+
+    public DrinkCache(DrinkRepository repository, DrinkMapper mapper, PlatformTransactionManager transactionManager) {
+        super("drinks", () -> mapper.toDtoList(repository.findAll(Sort.by("id"))), Drink::getId, transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.bse.backend.assignment.coffeestore.drink.internal;
 
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
+import com.bse.backend.assignment.coffeestore.common.collection.LongObjectMap;
 import com.bse.backend.assignment.coffeestore.drink.api.DrinkService;
 import com.bse.backend.assignment.coffeestore.drink.api.exception.DrinkNotFoundException;
 import com.bse.backend.assignment.coffeestore.drink.api.model.Drink;
@@ -9,9 +11,15 @@ import com.bse.backend.assignment.coffeestore.drink.internal.persistence.DrinkRe
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 @Log4j2
 @Service
@@ -23,16 +31,29 @@ public class DrinkServiceImpl implements DrinkService {
 
     private final DrinkRepository repository;
     private final DrinkMapper mapper;
+    private final DrinkCache cache;
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Drink> getAllDrinks() {
+        Optional<Map<Long, Drink>> snapshot = cache.read();
+        if (snapshot.isPresent()) return new ArrayList<>(snapshot.get().values());
+
         List<DrinkEntity> entities = repository.findAll();
         log.debug("Found {} drink entities", entities.size());
         return mapper.toDtoList(entities);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Drink getDrinkById(Long id) throws DrinkNotFoundException {
+        Optional<Map<Long, Drink>> snapshot = cache.read();
+        if (snapshot.isPresent()) {
+            Drink drink = snapshot.get().get(id);
+            if (drink == null) throw new DrinkNotFoundException(DRINK_NOT_FOUND);
+            return drink;
+        }
+
         return repository.findById(id)
                 .map(entity -> {
                     log.debug("Found {} drink by id {}", entity, id);
@@ -40,11 +61,43 @@ public class DrinkServiceImpl implements DrinkService {
                 }).orElseThrow(() -> new DrinkNotFoundException(DRINK_NOT_FOUND));
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Drink> getAllDrinksById(LongList ids) {
+        Optional<LongObjectMap<Drink>> snapshot = cache.readById();
+        if (snapshot.isPresent()) {
+            LongObjectMap<Drink> drinks = snapshot.get();
+            long[] sortedIds = ids.toArray();
+            Arrays.sort(sortedIds);
+
+            List<Drink> result = new ArrayList<>(sortedIds.length);
+            for (int i = 0; i < sortedIds.length; i++) {
+                if (i > 0 && sortedIds[i] == sortedIds[i - 1]) continue;
+
+                Drink drink = drinks.get(sortedIds[i]);
+                if (drink != null) result.add(drink);
+            }
+            return result;
+        }
+
+        // Spring Data binds the ids of the IN query from a collection, so they are only boxed here
+        List<DrinkEntity> entities = repository.findAllById(ids.boxed());
+
+        return mapper.toDtoList(entities);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public OptionalLong getVersion() {
+        return cache.readVersion();
+    }
+
     @Override
     public Drink createDrink(InputDrink drink) {
         DrinkEntity entity = mapper.toEntity(drink);
 
         DrinkEntity savedEntity = repository.save(entity);
+        cache.markModified();
         log.debug("New Drink has been successfully created: {}", savedEntity);
 
         return mapper.toDto(savedEntity);
@@ -62,6 +115,7 @@ public class DrinkServiceImpl implements DrinkService {
         updatedEntity.setId(id);
 
         updatedEntity = repository.save(updatedEntity);
+        cache.markModified();
         log.debug("Drink has been successfully updated: {}", updatedEntity);
 
         return mapper.toDto(updatedEntity);
@@ -70,6 +124,7 @@ public class DrinkServiceImpl implements DrinkService {
     @Override
     public void deleteDrink(Long id) {
         repository.deleteById(id);
+        cache.markModified();
         log.debug("Drink with id {} has been deleted", id);
     }
 
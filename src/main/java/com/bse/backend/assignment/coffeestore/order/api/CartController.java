@@ -0,0 +1,161 @@
+package com.bse.backend.assignment.coffeestore.order.api;
+
+import com.bse.backend.assignment.coffeestore.common.exception.BadRequestException;
+import com.bse.backend.assignment.coffeestore.common.exception.NotFoundException;
+import com.bse.backend.assignment.coffeestore.common.model.ErrorResponse;
+import com.bse.backend.assignment.coffeestore.common.model.ValidationErrorResponse;
+import com.bse.backend.assignment.coffeestore.order.api.model.Cart;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.api.model.Order;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Coffee Store Service APIs for managing draft carts.
+ * This interface defines endpoints for building a cart item by item, with the price and discount recalculated
+ * on every edit, and placing it as an order.
+ */
+@Tag(name = "Coffee Store Service APIs: Carts", description = "API endpoints for manage draft carts")
+@Validated
+public interface CartController {
+
+    /**
+     * Create an empty cart for the current user.
+     *
+     * @return The cart created successfully.
+     */
+    @Operation(summary = "Create an empty cart")
+    @ApiResponse(responseCode = "201", description = "Cart created successfully", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = Cart.class)
+    ))
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<Cart> createCart();
+
+    /**
+     * Get a cart of the current user by its ID.
+     *
+     * @param id The ID of the cart to retrieve.
+     * @return The cart with its items and current prices.
+     * @throws NotFoundException if the cart is not found.
+     */
+    @Operation(summary = "Get a cart by ID")
+    @ApiResponse(responseCode = "200", description = "Cart retrieved successfully", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = Cart.class)
+    ))
+    @ApiResponse(responseCode = "404", description = "Cart not found", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<Cart> getCart(String id) throws NotFoundException;
+
+    /**
+     * Add an item to a cart.
+     *
+     * @param id            The ID of the cart.
+     * @param inputCartItem The item to add.
+     * @return The cart with the item added and its new prices.
+     * @throws NotFoundException   if the cart or the drink of the item is not found.
+     * @throws BadRequestException if the cart already has the maximum number of items.
+     */
+    @Operation(summary = "Add an item to a cart")
+    @ApiResponse(responseCode = "200", description = "Item added successfully", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = Cart.class)
+    ))
+    @ApiResponse(responseCode = "400", description = "Bad request", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ValidationErrorResponse.class)
+    ))
+    @ApiResponse(responseCode = "404", description = "Cart or drink not found", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<Cart> addItem(String id, @Valid InputOrderItem inputCartItem)
+            throws NotFoundException, BadRequestException;
+
+    /**
+     * Remove an item from a cart.
+     *
+     * @param id     The ID of the cart.
+     * @param itemId The ID of the item within the cart.
+     * @return The cart without the item and its new prices.
+     * @throws NotFoundException if the cart or the item is not found.
+     */
+    @Operation(summary = "Remove an item from a cart")
+    @ApiResponse(responseCode = "200", description = "Item removed successfully", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = Cart.class)
+    ))
+    @ApiResponse(responseCode = "404", description = "Cart or item not found", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<Cart> removeItem(String id, Long itemId) throws NotFoundException;
+
+    /**
+     * Place a cart as an order. The cart is removed once the order is placed.
+     *
+     * @param id The ID of the cart.
+     * @return The order created successfully.
+     * @throws NotFoundException   if the cart is not found.
+     * @throws BadRequestException if the cart has no items.
+     */
+    @Operation(summary = "Place a cart as an order")
+    @ApiResponse(responseCode = "201", description = "Order created successfully", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = Order.class)
+    ))
+    @ApiResponse(responseCode = "400", description = "Bad request", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    @ApiResponse(responseCode = "404", description = "Cart not found", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<Order> checkout(String id) throws NotFoundException, BadRequestException;
+
+    /**
+     * Delete a cart by its ID.
+     *
+     * @param id The ID of the cart to delete.
+     * @return A response indicating the cart was deleted successfully.
+     */
+    @Operation(summary = "Delete a cart by ID")
+    @ApiResponse(responseCode = "204", description = "Cart deleted successfully")
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<Void> deleteCart(String id);
+
+}
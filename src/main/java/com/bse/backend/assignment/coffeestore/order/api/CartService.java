@@ -0,0 +1,74 @@
+package com.bse.backend.assignment.coffeestore.order.api;
+
+import com.bse.backend.assignment.coffeestore.drink.api.exception.DrinkNotFoundException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.CartNotFoundException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.CartTooLargeException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.EmptyCartException;
+import com.bse.backend.assignment.coffeestore.order.api.model.Cart;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.api.model.Order;
+
+/**
+ * Service interface for managing draft carts in the Coffee Store application. Draft carts are kept in memory and
+ * repriced on every edit; they are dropped once they have not been used for the configured idle time.
+ */
+public interface CartService {
+
+    /**
+     * Create an empty cart for the current user.
+     *
+     * @return The cart created successfully.
+     */
+    Cart createCart();
+
+    /**
+     * Retrieve a cart of the current user by its ID.
+     *
+     * @param id The ID of the cart to retrieve.
+     * @return The cart retrieved successfully.
+     * @throws CartNotFoundException if the cart is not found.
+     */
+    Cart getCart(String id) throws CartNotFoundException;
+
+    /**
+     * Add an item to a cart and reprice the cart.
+     *
+     * @param id   The ID of the cart.
+     * @param item The item to add.
+     * @return The cart with the item added.
+     * @throws CartNotFoundException  if the cart is not found.
+     * @throws CartTooLargeException  if the cart already has the configured maximum number of items.
+     * @throws DrinkNotFoundException if the drink of the item is not found.
+     */
+    Cart addItem(String id, InputOrderItem item)
+            throws CartNotFoundException, CartTooLargeException, DrinkNotFoundException;
+
+    /**
+     * Remove an item from a cart and reprice the cart.
+     *
+     * @param id     The ID of the cart.
+     * @param itemId The ID of the item within the cart.
+     * @return The cart without the item.
+     * @throws CartNotFoundException if the cart or the item is not found.
+     */
+    Cart removeItem(String id, Long itemId) throws CartNotFoundException;
+
+    /**
+     * Place a cart as an order at the prices it has been edited with. The cart is removed once the order is placed.
+     *
+     * @param id The ID of the cart.
+     * @return The order created successfully.
+     * @throws CartNotFoundException  if the cart is not found.
+     * @throws EmptyCartException     if the cart has no items.
+     * @throws DrinkNotFoundException if a drink of the created order cannot be resolved.
+     */
+    Order checkout(String id) throws CartNotFoundException, EmptyCartException, DrinkNotFoundException;
+
+    /**
+     * Delete a cart by its ID.
+     *
+     * @param id The ID of the cart to delete.
+     */
+    void deleteCart(String id);
+
+}
@@ -1,22 +1,40 @@
 package com.bse.backend.assignment.coffeestore.order.api;
 
+import com.bse.backend.assignment.coffeestore.common.exception.BadRequestException;
+import com.bse.backend.assignment.coffeestore.common.exception.ConflictException;
 import com.bse.backend.assignment.coffeestore.common.exception.NotFoundException;
 import com.bse.backend.assignment.coffeestore.common.model.ErrorResponse;
 import com.bse.backend.assignment.coffeestore.common.model.ValidationErrorResponse;
 import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
 import com.bse.backend.assignment.coffeestore.order.api.model.Order;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderBatchResult;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderDeletionResult;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderEventPage;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderPage;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderQuote;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderSummary;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 /**
  * Coffee Store Service APIs for managing orders.
@@ -43,6 +61,94 @@ public interface OrderController {
     ))
     ResponseEntity<List<Order>> getAllOrders() throws NotFoundException;
 
+    /**
+     * Get one page of orders for the current user, ordered by order ID.
+     *
+     * @param limit     The maximum number of orders to return; capped by the configured maximum page size.
+     * @param pageToken The opaque token returned with the previous page, or {@code null} for the first page.
+     * @return A page of orders and the token of the next page, which is {@code null} on the last page.
+     * @throws NotFoundException   if a drink referenced in an order is not found.
+     * @throws BadRequestException if the page token is invalid.
+     */
+    @Operation(summary = "List orders for current user page by page")
+    @ApiResponse(responseCode = "200", description = "Orders retrieved successfully", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = OrderPage.class)
+    ))
+    @ApiResponse(responseCode = "400", description = "Bad request", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<OrderPage> getOrderPage(@Positive Integer limit, String pageToken)
+            throws NotFoundException, BadRequestException;
+
+    /**
+     * Get the totals of the current user's orders: the number of orders placed, the amount spent, the amount saved
+     * through discounts and when the latest order was placed. They are computed in the database, or read from a
+     * summary maintained with every order change, so the full order history is not transferred.
+     *
+     * @return The order summary of the current user.
+     */
+    @Operation(summary = "Get order totals for current user")
+    @ApiResponse(responseCode = "200", description = "Order summary retrieved successfully", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = OrderSummary.class)
+    ))
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<OrderSummary> getOrderSummary();
+
+    /**
+     * Tail the order event log: the committed order changes of all users from a sequence number on, for downstream
+     * systems to pull. A page that starts after the requested sequence number means older events have been
+     * deleted. Requires the ADMIN role.
+     *
+     * @param from  The sequence number of the first event, or {@code null} for the oldest retained event.
+     * @param limit The maximum number of events to return; capped by the configured maximum read size.
+     * @return The events and the sequence number to continue from.
+     */
+    @Operation(summary = "Read order events of all users from a sequence number")
+    @ApiResponse(responseCode = "200", description = "Order events retrieved successfully", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = OrderEventPage.class)
+    ))
+    @ApiResponse(responseCode = "400", description = "Bad request", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ValidationErrorResponse.class)
+    ))
+    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<OrderEventPage> getOrderEvents(@PositiveOrZero Long from, @Positive Integer limit);
+
+    /**
+     * Export the full order history of the current user as newline-delimited JSON, one order per line.
+     * Orders are read in bounded keyset pages, and every page is detached once it has been written to the response,
+     * so memory use does not depend on the number of orders.
+     *
+     * @param response The response to write the orders to.
+     * @throws IOException       if the response cannot be written.
+     * @throws NotFoundException if a drink referenced in an order is not found.
+     */
+    @Operation(summary = "Export all orders for current user as NDJSON")
+    @ApiResponse(responseCode = "200", description = "Orders exported successfully", content = @Content(
+            mediaType = APPLICATION_NDJSON_VALUE,
+            schema = @Schema(implementation = Order.class)
+    ))
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    void exportOrders(@Parameter(hidden = true) HttpServletResponse response) throws IOException, NotFoundException;
+
     /**
      * Get an order by its ID.
      *
@@ -66,11 +172,16 @@ public interface OrderController {
     ResponseEntity<Order> getOrderById(Long id) throws NotFoundException;
 
     /**
-     * Create a new order for the current user.
+     * Create a new order for the current user. A request sent with an idempotency key creates at most one order:
+     * a retry with the same key gets the order created by the first request.
      *
-     * @param inputOrder The order to create.
+     * @param idempotencyKey The key identifying the request across retries, or {@code null} to create the order
+     *                       unconditionally.
+     * @param inputOrder     The order to create.
      * @return The order created successfully.
      * @throws NotFoundException if the specified order items are not found
+     * @throws ConflictException if the idempotency key has been used for a different order, or a request with it
+     *                           is still in progress
      */
     @Operation(summary = "Create a new order for current user")
     @ApiResponse(responseCode = "200", description = "Order created successfully", content = @Content(
@@ -85,7 +196,67 @@ public interface OrderController {
             mediaType = APPLICATION_JSON_VALUE,
             schema = @Schema(implementation = ErrorResponse.class)
     ))
-    ResponseEntity<Order> createOrder(@Valid InputOrder inputOrder) throws NotFoundException;
+    @ApiResponse(responseCode = "409", description = "Idempotency key conflict", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<Order> createOrder(
+            @Parameter(description = "Key identifying the request across retries") @Size(min = 1, max = 255)
+            String idempotencyKey,
+            @Valid InputOrder inputOrder
+    ) throws NotFoundException, ConflictException;
+
+    /**
+     * Create many orders for the current user in one request. All orders are priced against the same menu
+     * and stored together; an order referencing an unknown drink is reported as failed without affecting
+     * the others.
+     *
+     * @param inputOrders The orders to create; limited by the configured maximum batch size.
+     * @return The result of every submitted order, in submission order.
+     * @throws BadRequestException if the batch exceeds the maximum batch size.
+     * @throws NotFoundException   if a drink of a created order can no longer be resolved.
+     */
+    @Operation(summary = "Create many orders for current user")
+    @ApiResponse(responseCode = "200", description = "Orders processed", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = OrderBatchResult.class)
+    ))
+    @ApiResponse(responseCode = "400", description = "Bad request", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ValidationErrorResponse.class)
+    ))
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<OrderBatchResult> createOrders(@NotEmpty List<@NotNull @Valid InputOrder> inputOrders)
+            throws BadRequestException, NotFoundException;
+
+    /**
+     * Price an order without placing it.
+     *
+     * @param inputOrder The order to price.
+     * @return The price the order would have if it were placed now, with the applicable discount.
+     * @throws NotFoundException if a drink referenced in the order is not found.
+     */
+    @Operation(summary = "Price an order without placing it")
+    @ApiResponse(responseCode = "200", description = "Order priced successfully", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = OrderQuote.class)
+    ))
+    @ApiResponse(responseCode = "400", description = "Bad request", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ValidationErrorResponse.class)
+    ))
+    @ApiResponse(responseCode = "404", description = "Drink not found", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<OrderQuote> quoteOrder(@Valid InputOrder inputOrder) throws NotFoundException;
 
     /**
      * Update an existing order.
@@ -94,6 +265,7 @@ public interface OrderController {
      * @param inputOrder The updated order information.
      * @return The order updated successfully.
      * @throws NotFoundException if the specified order or order items are not found
+     * @throws ConflictException if the order has been modified since the version the update is based on
      */
     @Operation(summary = "Update an existing order")
     @ApiResponse(responseCode = "200", description = "Order updated successfully", content = @Content(
@@ -112,7 +284,12 @@ public interface OrderController {
             mediaType = APPLICATION_JSON_VALUE,
             schema = @Schema(implementation = ErrorResponse.class)
     ))
-    ResponseEntity<Order> updateOrder(Long id, @Valid InputOrder inputOrder) throws NotFoundException;
+    @ApiResponse(responseCode = "409", description = "Order modified concurrently", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<Order> updateOrder(Long id, @Valid InputOrder inputOrder)
+            throws NotFoundException, ConflictException;
 
     /**
      * Delete an order by its ID.
@@ -132,4 +309,47 @@ public interface OrderController {
     ))
     ResponseEntity<Void> deleteOrder(Long id);
 
+    /**
+     * Delete all orders of the current user.
+     *
+     * @return The number of deleted orders and order items.
+     */
+    @Operation(summary = "Delete all orders of current user")
+    @ApiResponse(responseCode = "200", description = "Orders deleted successfully", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = OrderDeletionResult.class)
+    ))
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<OrderDeletionResult> deleteAllOrders();
+
+    /**
+     * Delete the orders of all users created in the given date range. Requires the ADMIN role.
+     *
+     * @param from The start of the date range, inclusive.
+     * @param to   The end of the date range, exclusive.
+     * @return The number of deleted orders and order items.
+     * @throws BadRequestException if the start of the date range is not before its end.
+     */
+    @Operation(summary = "Delete orders of all users created in a date range")
+    @ApiResponse(responseCode = "200", description = "Orders deleted successfully", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = OrderDeletionResult.class)
+    ))
+    @ApiResponse(responseCode = "400", description = "Bad request", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(
+            mediaType = APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = ErrorResponse.class)
+    ))
+    ResponseEntity<OrderDeletionResult> deleteOrdersCreatedBetween(
+            @Parameter(description = "Start of the creation date range, inclusive (ISO-8601)") @NotNull Instant from,
+            @Parameter(description = "End of the creation date range, exclusive (ISO-8601)") @NotNull Instant to
+    ) throws BadRequestException;
+
 }
@@ -1,10 +1,23 @@
 package com.bse.backend.assignment.coffeestore.order.api;
 
 import com.bse.backend.assignment.coffeestore.drink.api.exception.DrinkNotFoundException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.InvalidDateRangeException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.InvalidPageTokenException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.OrderBatchTooLargeException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.OrderConflictException;
 import com.bse.backend.assignment.coffeestore.order.api.exception.OrderNotFoundException;
 import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
 import com.bse.backend.assignment.coffeestore.order.api.model.Order;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderBatchResult;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderDeletionResult;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderEventPage;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderPage;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderQuote;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderSummary;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -20,6 +33,45 @@ public interface OrderService {
      */
     List<Order> getAllOrders() throws DrinkNotFoundException;
 
+    /**
+     * Retrieve one page of orders, ordered by order ID. Pages are addressed by keyset, so every page
+     * costs the same regardless of how deep into the order history it is.
+     *
+     * @param limit     The maximum number of orders to return, or {@code null} for the default page size.
+     * @param pageToken The token of the page to retrieve, or {@code null} for the first page.
+     * @return A page of orders retrieved successfully.
+     * @throws DrinkNotFoundException     if a drink referenced in an order is not found.
+     * @throws InvalidPageTokenException if the page token is invalid.
+     */
+    OrderPage getOrderPage(Integer limit, String pageToken) throws DrinkNotFoundException, InvalidPageTokenException;
+
+    /**
+     * Retrieve the totals of the current user's orders: how many have been placed, the amount spent on them and
+     * the amount saved through discounts.
+     *
+     * @return The order summary of the current user.
+     */
+    OrderSummary getOrderSummary();
+
+    /**
+     * Read the committed order changes of all users from the order event log, in sequence order.
+     *
+     * @param from  The sequence number of the first event, or {@code null} for the oldest retained event.
+     * @param limit The maximum number of events to return; capped by the configured maximum read size.
+     * @return The events and the sequence number to continue from.
+     */
+    OrderEventPage getOrderEvents(Long from, Integer limit);
+
+    /**
+     * Write all orders as newline-delimited JSON, one order per line, reading them from the database in bounded
+     * keyset pages that are detached once written.
+     *
+     * @param outputStream The stream to write the orders to; it is flushed but not closed.
+     * @throws IOException            if the orders cannot be written.
+     * @throws DrinkNotFoundException if a drink referenced in an order is not found.
+     */
+    void exportOrders(OutputStream outputStream) throws IOException, DrinkNotFoundException;
+
     /**
      * Retrieve an order by its ID.
      *
@@ -39,6 +91,27 @@ public interface OrderService {
      */
     Order createOrder(InputOrder newOrder) throws DrinkNotFoundException;
 
+    /**
+     * Create many orders in one transaction. Menu items are resolved once for the whole batch and the orders
+     * are inserted in JDBC batches.
+     *
+     * @param newOrders The orders to create.
+     * @return The result of every order, in the order they were given.
+     * @throws OrderBatchTooLargeException if there are more orders than the configured maximum batch size.
+     * @throws DrinkNotFoundException      if a drink of a created order can no longer be resolved.
+     */
+    OrderBatchResult createOrders(List<InputOrder> newOrders)
+            throws OrderBatchTooLargeException, DrinkNotFoundException;
+
+    /**
+     * Price an order without placing it. Nothing is written to the database.
+     *
+     * @param order The order to price.
+     * @return The price the order would have if it were placed now.
+     * @throws DrinkNotFoundException if a drink referenced in the order is not found.
+     */
+    OrderQuote quoteOrder(InputOrder order) throws DrinkNotFoundException;
+
     /**
      * Update an existing order.
      *
@@ -46,9 +119,11 @@ public interface OrderService {
      * @param newOrder The updated order information.
      * @return The order updated successfully.
      * @throws OrderNotFoundException if the order is not found.
+     * @throws OrderConflictException if the order has been modified since the version the update is based on.
      * @throws DrinkNotFoundException if a drink referenced in the order is not found.
      */
-    Order updateOrder(Long id, InputOrder newOrder) throws OrderNotFoundException, DrinkNotFoundException;
+    Order updateOrder(Long id, InputOrder newOrder)
+            throws OrderNotFoundException, OrderConflictException, DrinkNotFoundException;
 
     /**
      * Delete an order by its ID.
@@ -57,4 +132,21 @@ public interface OrderService {
      */
     void deleteOrder(Long id);
 
+    /**
+     * Delete all orders of the current user, e.g. to erase the user's personal data.
+     *
+     * @return The number of deleted orders and order items.
+     */
+    OrderDeletionResult deleteAllOrders();
+
+    /**
+     * Delete the orders of all users created in the given date range.
+     *
+     * @param from The start of the date range, inclusive.
+     * @param to   The end of the date range, exclusive.
+     * @return The number of deleted orders and order items.
+     * @throws InvalidDateRangeException if the start of the date range is not before its end.
+     */
+    OrderDeletionResult deleteOrdersCreatedBetween(Instant from, Instant to) throws InvalidDateRangeException;
+
 }
@@ -0,0 +1,16 @@
+package com.bse.backend.assignment.coffeestore.order.api.exception;
+
+import com.bse.backend.assignment.coffeestore.common.exception.NotFoundException;
+
+import java.io.Serial;
+
+public class CartNotFoundException extends NotFoundException {
+
+    @Serial
+    private static final long serialVersionUID = 6081273350419937166L;
+
+    public CartNotFoundException(String message) {
+        super(message);
+    }
+
+}
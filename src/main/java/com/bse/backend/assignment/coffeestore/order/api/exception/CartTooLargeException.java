@@ -0,0 +1,16 @@
+package com.bse.backend.assignment.coffeestore.order.api.exception;
+
+import com.bse.backend.assignment.coffeestore.common.exception.BadRequestException;
+
+import java.io.Serial;
+
+public class CartTooLargeException extends BadRequestException {
+
+    @Serial
+    private static final long serialVersionUID = -4470851223176389025L;
+
+    public CartTooLargeException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.bse.backend.assignment.coffeestore.order.api.exception;
+
+import com.bse.backend.assignment.coffeestore.common.exception.BadRequestException;
+
+import java.io.Serial;
+
+public class EmptyCartException extends BadRequestException {
+
+    @Serial
+    private static final long serialVersionUID = 3861520947713052289L;
+
+    public EmptyCartException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.bse.backend.assignment.coffeestore.order.api.exception;
+
+import com.bse.backend.assignment.coffeestore.common.exception.ConflictException;
+
+import java.io.Serial;
+
+public class IdempotencyKeyConflictException extends ConflictException {
+
+    @Serial
+    private static final long serialVersionUID = -6652893040371853702L;
+
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.bse.backend.assignment.coffeestore.order.api.exception;
+
+import com.bse.backend.assignment.coffeestore.common.exception.BadRequestException;
+
+import java.io.Serial;
+
+public class InvalidDateRangeException extends BadRequestException {
+
+    @Serial
+    private static final long serialVersionUID = 7409893025128715093L;
+
+    public InvalidDateRangeException(String message) {
+        super(message);
+    }
+
+}
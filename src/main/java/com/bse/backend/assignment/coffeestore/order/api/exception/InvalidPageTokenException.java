@@ -0,0 +1,16 @@
+package com.bse.backend.assignment.coffeestore.order.api.exception;
+
+import com.bse.backend.assignment.coffeestore.common.exception.BadRequestException;
+
+import java.io.Serial;
+
+public class InvalidPageTokenException extends BadRequestException {
+
+    @Serial
+    private static final long serialVersionUID = 4716470932586327410L;
+
+    public InvalidPageTokenException(String message) {
+        super(message);
+    }
+
+}
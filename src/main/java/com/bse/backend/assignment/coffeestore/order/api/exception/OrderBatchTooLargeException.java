@@ -0,0 +1,16 @@
+package com.bse.backend.assignment.coffeestore.order.api.exception;
+
+import com.bse.backend.assignment.coffeestore.common.exception.BadRequestException;
+
+import java.io.Serial;
+
+public class OrderBatchTooLargeException extends BadRequestException {
+
+    @Serial
+    private static final long serialVersionUID = -3318029470316529871L;
+
+    public OrderBatchTooLargeException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.bse.backend.assignment.coffeestore.order.api.exception;
+
+import com.bse.backend.assignment.coffeestore.common.exception.ConflictException;
+
+import java.io.Serial;
+
+public class OrderConflictException extends ConflictException {
+
+    @Serial
+    private static final long serialVersionUID = 2193373187250349610L;
+
+    public OrderConflictException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.bse.backend.assignment.coffeestore.order.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Represents a draft cart that is edited item by item and priced after every edit, before it is placed as an order.
+ * This class is serializable and used for JSON responses.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class Cart implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 2094786181547342512L;
+
+    private String id;
+    private BigDecimal originalPrice;
+    private BigDecimal discount;
+    private BigDecimal price;
+    private List<CartItem> items;
+
+}
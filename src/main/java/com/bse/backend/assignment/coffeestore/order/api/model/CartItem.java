@@ -0,0 +1,31 @@
+package com.bse.backend.assignment.coffeestore.order.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Represents an item in a draft cart, consisting of a drink and optional toppings, along with its price.
+ * The ID addresses the item within its cart. This class is serializable and used for JSON responses.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class CartItem implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -1729934185620417083L;
+
+    private Long id;
+    private OrderDrink drink;
+    private List<OrderTopping> toppings;
+    private BigDecimal price;
+
+}
@@ -26,4 +26,10 @@ public class InputOrder implements Serializable {
     @Size(min = 1)
     private List<@Valid InputOrderItem> items;
 
+    /**
+     * The version of the order an update is based on. When given, the update is rejected
+     * if the order has been modified since. Ignored on creation.
+     */
+    private Long version;
+
 }
@@ -2,6 +2,7 @@ package com.bse.backend.assignment.coffeestore.order.api.model;
 
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,6 +22,11 @@ import java.util.List;
 @NoArgsConstructor
 public class InputOrderItem implements Serializable {
 
+    /**
+     * The upper bound for the toppings of an item; the order item columns are sized for it.
+     */
+    public static final int MAX_TOPPINGS = 10;
+
     @Serial
     private static final long serialVersionUID = 1055388549667759790L;
 
@@ -29,6 +35,7 @@ public class InputOrderItem implements Serializable {
     private Long drinkId;
 
     @Builder.Default
+    @Size(max = MAX_TOPPINGS)
     private List<@NotNull @Positive Long> toppingIds = new ArrayList<>();
 
 }
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import java.io.Serial;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -23,7 +24,9 @@ public class Order implements Serializable {
     private static final long serialVersionUID = -5499983510531373791L;
 
     private Long id;
+    private Long version;
     private String username;
+    private Instant createdAt;
     private BigDecimal originalPrice;
     private BigDecimal discount;
     private BigDecimal price;
@@ -0,0 +1,29 @@
+package com.bse.backend.assignment.coffeestore.order.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Represents the outcome of a single order in a bulk order creation: either the created order
+ * or the reason it was rejected. This class is serializable and used for JSON responses.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class OrderBatchItemResult implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -1208644157938523067L;
+
+    private int index;
+    private boolean success;
+    private Order order;
+    private String error;
+
+}
@@ -0,0 +1,29 @@
+package com.bse.backend.assignment.coffeestore.order.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Represents the outcome of a bulk order creation, with one result per submitted order in submission order.
+ * This class is serializable and used for JSON responses.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class OrderBatchResult implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 6093417285539721460L;
+
+    private int created;
+    private int failed;
+    private List<OrderBatchItemResult> results;
+
+}
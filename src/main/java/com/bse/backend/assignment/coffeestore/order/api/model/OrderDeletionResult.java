@@ -0,0 +1,27 @@
+package com.bse.backend.assignment.coffeestore.order.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Represents the outcome of a bulk order deletion: the number of deleted orders and order items.
+ * This class is serializable and used for JSON responses.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class OrderDeletionResult implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -1517009658862283370L;
+
+    private long orders;
+    private long items;
+
+}
@@ -0,0 +1,44 @@
+package com.bse.backend.assignment.coffeestore.order.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Represents a committed order change read from the order event log or delivered from the order outbox, where the
+ * sequence is the outbox ID. Which fields are set depends on the type: created and updated orders come with their
+ * price, discount and items, a deleted order with its ID only, and bulk deletes with the user or the date range and
+ * the number of deleted orders.
+ * This class is serializable and used for JSON responses.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class OrderEvent implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4617730839156021774L;
+
+    private long sequence;
+    private Instant occurredAt;
+    private OrderEventType type;
+    private Long orderId;
+    private Long version;
+    private String username;
+    private Instant createdAt;
+    private BigDecimal price;
+    private BigDecimal discount;
+    private List<OrderEventItem> items;
+    private Instant from;
+    private Instant to;
+    private Long deletedOrders;
+
+}
@@ -0,0 +1,28 @@
+package com.bse.backend.assignment.coffeestore.order.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Represents an item of an order in an order event: the drink and the toppings by ID, as catalog details and item
+ * prices are not part of the event. This class is serializable and used for JSON responses.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class OrderEventItem implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -6244108312645470093L;
+
+    private Long drinkId;
+    private List<Long> toppingIds;
+
+}
@@ -0,0 +1,29 @@
+package com.bse.backend.assignment.coffeestore.order.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Represents a run of order events in sequence order together with the sequence number to continue from.
+ * This class is serializable and used for JSON responses.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class OrderEventPage implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2904455418620356217L;
+
+    private List<OrderEvent> events;
+    private long firstSequence;
+    private long nextSequence;
+
+}
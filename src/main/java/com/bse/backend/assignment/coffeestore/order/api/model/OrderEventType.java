@@ -0,0 +1,12 @@
+package com.bse.backend.assignment.coffeestore.order.api.model;
+
+/**
+ * Enum representing the kinds of order changes recorded in the order event log.
+ */
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_UPDATED,
+    ORDER_DELETED,
+    USER_ORDERS_DELETED,
+    ORDERS_DELETED_CREATED_BETWEEN
+}
@@ -0,0 +1,28 @@
+package com.bse.backend.assignment.coffeestore.order.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Represents one page of orders together with an opaque token for the next page.
+ * This class is serializable and used for JSON responses.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class OrderPage implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 2841792376511054381L;
+
+    private List<Order> items;
+    private String nextPageToken;
+
+}
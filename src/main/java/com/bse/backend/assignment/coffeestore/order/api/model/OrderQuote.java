@@ -0,0 +1,29 @@
+package com.bse.backend.assignment.coffeestore.order.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Represents the price an order would have if it were placed now, with the discount that would apply.
+ * This class is serializable and used for JSON responses.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class OrderQuote implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4632297458612940775L;
+
+    private BigDecimal originalPrice;
+    private BigDecimal discount;
+    private BigDecimal price;
+
+}
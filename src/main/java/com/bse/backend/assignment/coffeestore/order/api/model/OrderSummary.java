@@ -0,0 +1,32 @@
+package com.bse.backend.assignment.coffeestore.order.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Represents the totals of a user's order history: the number of orders placed, the amount spent on them,
+ * the amount saved through discounts and when the latest order was placed.
+ * This class is serializable and used for JSON responses.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class OrderSummary implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 2176493315823541470L;
+
+    private long ordersPlaced;
+    private BigDecimal totalSpent;
+    private BigDecimal totalSaved;
+    private Instant lastOrderAt;
+
+}
@@ -0,0 +1,80 @@
+package com.bse.backend.assignment.coffeestore.order.internal;
+
+import com.bse.backend.assignment.coffeestore.common.exception.BadRequestException;
+import com.bse.backend.assignment.coffeestore.common.exception.NotFoundException;
+import com.bse.backend.assignment.coffeestore.order.api.CartController;
+import com.bse.backend.assignment.coffeestore.order.api.CartService;
+import com.bse.backend.assignment.coffeestore.order.api.model.Cart;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.api.model.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/carts")
+@RequiredArgsConstructor
+public class CartControllerImpl implements CartController {
+
+    private final CartService service;
+
+    @Override
+    @PostMapping
+    public ResponseEntity<Cart> createCart() {
+        Cart cart = service.createCart();
+
+        return new ResponseEntity<>(cart, HttpStatus.CREATED);
+    }
+
+    @Override
+    @GetMapping("/{id}")
+    public ResponseEntity<Cart> getCart(@PathVariable String id) throws NotFoundException {
+        Cart cart = service.getCart(id);
+
+        return new ResponseEntity<>(cart, HttpStatus.OK);
+    }
+
+    @Override
+    @PostMapping("/{id}/items")
+    public ResponseEntity<Cart> addItem(
+            @PathVariable String id,
+            @RequestBody InputOrderItem inputCartItem
+    ) throws NotFoundException, BadRequestException {
+        Cart cart = service.addItem(id, inputCartItem);
+
+        return new ResponseEntity<>(cart, HttpStatus.OK);
+    }
+
+    @Override
+    @DeleteMapping("/{id}/items/{itemId}")
+    public ResponseEntity<Cart> removeItem(@PathVariable String id, @PathVariable Long itemId)
+            throws NotFoundException {
+        Cart cart = service.removeItem(id, itemId);
+
+        return new ResponseEntity<>(cart, HttpStatus.OK);
+    }
+
+    @Override
+    @PostMapping("/{id}/checkout")
+    public ResponseEntity<Order> checkout(@PathVariable String id) throws NotFoundException, BadRequestException {
+        Order order = service.checkout(id);
+
+        return new ResponseEntity<>(order, HttpStatus.CREATED);
+    }
+
+    @Override
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteCart(@PathVariable String id) {
+        service.deleteCart(id);
+
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.bse.backend.assignment.coffeestore.order.internal;
+
+import com.bse.backend.assignment.coffeestore.drink.api.exception.DrinkNotFoundException;
+import com.bse.backend.assignment.coffeestore.order.api.CartService;
+import com.bse.backend.assignment.coffeestore.order.api.exception.CartNotFoundException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.CartTooLargeException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.EmptyCartException;
+import com.bse.backend.assignment.coffeestore.order.api.model.Cart;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.api.model.Order;
+import com.bse.backend.assignment.coffeestore.order.internal.cart.DraftCart;
+import com.bse.backend.assignment.coffeestore.order.internal.cart.DraftCartStore;
+import com.bse.backend.assignment.coffeestore.order.internal.config.OrderConfigurationProperties;
+import com.bse.backend.assignment.coffeestore.order.internal.discount.DiscountCalculator;
+import com.bse.backend.assignment.coffeestore.order.internal.event.OrderEventLog;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.MenuLookup;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.MenuLookupLoader;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.OrderItemMapper;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.OrderMapper;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemEntity;
+import com.bse.backend.assignment.coffeestore.security.api.UserService;
+import com.bse.backend.assignment.coffeestore.security.api.model.UserResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Log4j2
+@RequiredArgsConstructor
+public class CartServiceImpl implements CartService {
+
+    private final UserService userService;
+    private final DiscountCalculator discountCalculator;
+    private final OrderMapper mapper;
+    private final OrderItemMapper itemMapper;
+    private final MenuLookupLoader menuLookupLoader;
+    private final DraftCartStore store;
+    private final OrderConfigurationProperties properties;
+    private final OrderWriter writer;
+    private final OrderEventLog eventLog;
+
+    @Override
+    public Cart createCart() {
+        String username = currentUsername();
+        DraftCart cart = new DraftCart(UUID.randomUUID().toString(), username, properties.getCarts().getMaxItems(),
+                discountCalculator);
+        store.put(cart.getId(), cart);
+        log.debug("New cart {} has been created for user {}", cart.getId(), username);
+
+        return Cart.builder()
+                .id(cart.getId())
+                .originalPrice(BigDecimal.ZERO)
+                .discount(BigDecimal.ZERO)
+                .price(BigDecimal.ZERO)
+                .items(List.of())
+                .build();
+    }
+
+    @Override
+    public Cart getCart(String id) throws CartNotFoundException {
+        return findCart(id).view();
+    }
+
+    @Override
+    public Cart addItem(String id, InputOrderItem item)
+            throws CartNotFoundException, CartTooLargeException, DrinkNotFoundException {
+        DraftCart cart = findCart(id);
+
+        // Priced and snapshotted once, so the cart is repriced and ordered without going back to the catalog
+        MenuLookup menu = menuLookupLoader.forInput(InputOrder.builder()
+                .items(List.of(item))
+                .build());
+        OrderItemEntity entity = itemMapper.toEntity(item, menu);
+        Cart updatedCart = cart.addItem(entity, itemMapper.toDto(entity, menu));
+        log.debug("Added item {} to cart {}: {}", entity, id, updatedCart.getPrice());
+
+        return updatedCart;
+    }
+
+    @Override
+    public Cart removeItem(String id, Long itemId) throws CartNotFoundException {
+        return findCart(id).removeItem(itemId);
+    }
+
+    @Override
+    public Order checkout(String id) throws CartNotFoundException, EmptyCartException, DrinkNotFoundException {
+        DraftCart cart = findCart(id);
+        // The cart is priced already; the insert commits in its own transaction before the cart is closed
+        OrderEntity savedOrder = cart.checkout(writer::create);
+        eventLog.created(savedOrder);
+        store.invalidate(id);
+        log.debug("Cart {} has been ordered: {}", id, savedOrder);
+
+        return mapper.toDto(savedOrder, menuLookupLoader.forEntity(savedOrder));
+    }
+
+    @Override
+    public void deleteCart(String id) {
+        String username = currentUsername();
+        store.get(id)
+                .filter(cart -> cart.getUsername().equals(username))
+                .ifPresent(cart -> {
+                    cart.close();
+                    store.invalidate(id);
+                    log.debug("Cart {} of user {} has been deleted", id, username);
+                });
+    }
+
+    private DraftCart findCart(String id) throws CartNotFoundException {
+        String username = currentUsername();
+
+        return store.getAndRefresh(id)
+                .filter(cart -> cart.getUsername().equals(username))
+                .orElseThrow(() -> new CartNotFoundException(String.format(DraftCart.CART_NOT_FOUND_TEMPLATE, id)));
+    }
+
+    private String currentUsername() {
+        return userService.getCurrentUser()
+                .map(UserResponse::getEmail)
+                .orElseThrow(() -> new BadCredentialsException(OrderServiceImpl.AUTHENTICATION_IS_REQUIRED));
+    }
+
+}
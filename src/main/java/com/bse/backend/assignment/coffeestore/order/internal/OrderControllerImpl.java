@@ -1,30 +1,51 @@
 package com.bse.backend.assignment.coffeestore.order.internal;
 
+import com.bse.backend.assignment.coffeestore.common.exception.BadRequestException;
+import com.bse.backend.assignment.coffeestore.common.exception.ConflictException;
 import com.bse.backend.assignment.coffeestore.common.exception.NotFoundException;
 import com.bse.backend.assignment.coffeestore.order.api.OrderController;
 import com.bse.backend.assignment.coffeestore.order.api.OrderService;
 import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
 import com.bse.backend.assignment.coffeestore.order.api.model.Order;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderBatchResult;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderDeletionResult;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderEventPage;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderPage;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderQuote;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderSummary;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
 @RestController
 @RequestMapping("/api/v1/orders")
 @RequiredArgsConstructor
 public class OrderControllerImpl implements OrderController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final OrderService service;
+    private final OrderIdempotencyStore idempotencyStore;
 
     @Override
     @GetMapping
@@ -34,6 +55,47 @@ public class OrderControllerImpl implements OrderController {
         return new ResponseEntity<>(orders, HttpStatus.OK);
     }
 
+    @Override
+    @GetMapping("/page")
+    public ResponseEntity<OrderPage> getOrderPage(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String pageToken
+    ) throws NotFoundException, BadRequestException {
+        OrderPage page = service.getOrderPage(limit, pageToken);
+
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @Override
+    @GetMapping("/summary")
+    public ResponseEntity<OrderSummary> getOrderSummary() {
+        OrderSummary summary = service.getOrderSummary();
+
+        return new ResponseEntity<>(summary, HttpStatus.OK);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/events")
+    public ResponseEntity<OrderEventPage> getOrderEvents(
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Integer limit
+    ) {
+        OrderEventPage page = service.getOrderEvents(from, limit);
+
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @Override
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public void exportOrders(HttpServletResponse response) throws IOException, NotFoundException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        service.exportOrders(response.getOutputStream());
+    }
+
     @Override
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrderById(@PathVariable Long id) throws NotFoundException {
@@ -44,10 +106,38 @@ public class OrderControllerImpl implements OrderController {
 
     @Override
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody InputOrder inputOrder) throws NotFoundException {
-        Order order = service.createOrder(inputOrder);
+    public ResponseEntity<Order> createOrder(
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody InputOrder inputOrder
+    ) throws NotFoundException, ConflictException {
+        if (idempotencyKey == null) {
+            Order order = service.createOrder(inputOrder);
 
-        return new ResponseEntity<>(order, HttpStatus.CREATED);
+            return new ResponseEntity<>(order, HttpStatus.CREATED);
+        }
+
+        OrderIdempotencyStore.CreatedOrder created = idempotencyStore.createOrder(idempotencyKey, inputOrder);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(created.replayed()))
+                .body(created.order());
+    }
+
+    @Override
+    @PostMapping("/batch")
+    public ResponseEntity<OrderBatchResult> createOrders(@RequestBody List<InputOrder> inputOrders)
+            throws BadRequestException, NotFoundException {
+        OrderBatchResult result = service.createOrders(inputOrders);
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @Override
+    @PostMapping("/quote")
+    public ResponseEntity<OrderQuote> quoteOrder(@RequestBody InputOrder inputOrder) throws NotFoundException {
+        OrderQuote quote = service.quoteOrder(inputOrder);
+
+        return new ResponseEntity<>(quote, HttpStatus.OK);
     }
 
     @Override
@@ -55,7 +145,7 @@ public class OrderControllerImpl implements OrderController {
     public ResponseEntity<Order> updateOrder(
             @PathVariable Long id,
             @RequestBody InputOrder inputOrder
-    ) throws NotFoundException {
+    ) throws NotFoundException, ConflictException {
         Order order = service.updateOrder(id, inputOrder);
 
         return new ResponseEntity<>(order, HttpStatus.OK);
@@ -69,4 +159,24 @@ public class OrderControllerImpl implements OrderController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @Override
+    @DeleteMapping
+    public ResponseEntity<OrderDeletionResult> deleteAllOrders() {
+        OrderDeletionResult result = service.deleteAllOrders();
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/created")
+    public ResponseEntity<OrderDeletionResult> deleteOrdersCreatedBetween(
+            @RequestParam Instant from,
+            @RequestParam Instant to
+    ) throws BadRequestException {
+        OrderDeletionResult result = service.deleteOrdersCreatedBetween(from, to);
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
 }
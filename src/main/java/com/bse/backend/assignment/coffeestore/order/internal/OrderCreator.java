@@ -0,0 +1,40 @@
+package com.bse.backend.assignment.coffeestore.order.internal;
+
+import com.bse.backend.assignment.coffeestore.drink.api.exception.DrinkNotFoundException;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.api.model.Order;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.MenuLookup;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+
+/**
+ * Creates an order of the current user in two steps, so that a caller holding its own transaction around the insert
+ * can price the order before opening it.
+ */
+public interface OrderCreator {
+
+    /**
+     * Resolve the menu of an order against the cached catalog and price it; runs outside any transaction.
+     *
+     * @param newOrder The order to create.
+     * @return The priced order, not persisted yet.
+     * @throws DrinkNotFoundException if a drink referenced in the order is not found.
+     */
+    PricedOrder price(InputOrder newOrder) throws DrinkNotFoundException;
+
+    /**
+     * Insert a priced order; joins the transaction of the caller, if any.
+     *
+     * @param order The priced order.
+     * @return The order created successfully.
+     * @throws DrinkNotFoundException if a drink referenced in the order is not found.
+     */
+    Order persist(PricedOrder order) throws DrinkNotFoundException;
+
+    /**
+     * @param entity The priced order, not persisted yet.
+     * @param menu   The menu the order has been priced against.
+     */
+    record PricedOrder(OrderEntity entity, MenuLookup menu) {
+    }
+
+}
@@ -0,0 +1,226 @@
+package com.bse.backend.assignment.coffeestore.order.internal;
+
+import com.bse.backend.assignment.coffeestore.common.cache.ExpiringLruCache;
+import com.bse.backend.assignment.coffeestore.drink.api.exception.DrinkNotFoundException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.IdempotencyKeyConflictException;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.api.model.Order;
+import com.bse.backend.assignment.coffeestore.order.internal.config.OrderConfigurationProperties;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderIdempotencyKeyEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderIdempotencyKeyRepository;
+import com.bse.backend.assignment.coffeestore.security.api.UserService;
+import com.bse.backend.assignment.coffeestore.security.api.model.UserResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Creates orders at most once per idempotency key. A key is remembered per user together with a hash of the request
+ * and the created order: a retry with the same key and request gets the stored order back without the order being
+ * mapped, priced or persisted again, while a different request with a key that has already been used is rejected.
+ * <p>
+ * The key is inserted in the transaction that creates the order, so of two concurrent requests with the same key
+ * only one creates an order and the other one is answered with it. The order is priced before that transaction is
+ * opened, which then only holds a connection to insert the order and the key. Recently used keys are answered from memory;
+ * the table keeps them across restarts. Keys expire after the configured TTL and are purged oldest first.
+ */
+@Component
+@Log4j2
+public class OrderIdempotencyStore
+        extends ExpiringLruCache<OrderIdempotencyStore.Key, OrderIdempotencyStore.StoredOrder> {
+
+    public static final String KEY_REUSED_TEMPLATE = "Idempotency key %s has already been used for a different order";
+    public static final String KEY_IN_USE_TEMPLATE = "An order with idempotency key %s is being created";
+
+    private final OrderIdempotencyKeyRepository repository;
+    private final OrderCreator creator;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final OrderConfigurationProperties properties;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionTemplate purgeTransaction;
+    private final Clock clock;
+
+    public OrderIdempotencyStore(OrderIdempotencyKeyRepository repository, OrderCreator creator,
+                                 UserService userService, ObjectMapper objectMapper,
+                                 OrderConfigurationProperties properties,
+                                 PlatformTransactionManager transactionManager) {
+        super("order-idempotency-keys", properties.getIdempotency().getCacheMaxSize(),
+                properties.getIdempotency().getTtl(), Clock.systemUTC());
+        this.repository = repository;
+        this.creator = creator;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.transactionManager = transactionManager;
+        this.purgeTransaction = new TransactionTemplate(transactionManager);
+        this.clock = Clock.systemUTC();
+    }
+
+    /**
+     * Create an order for the current user unless one has already been created with the idempotency key.
+     *
+     * @param idempotencyKey The idempotency key the client has sent with the request.
+     * @param order          The order to create.
+     * @return The created order, or the order created before with the key.
+     * @throws IdempotencyKeyConflictException if the key has been used for a different order, or a concurrent
+     *                                         request with the key is still creating its order.
+     * @throws DrinkNotFoundException          if a drink referenced in the order is not found.
+     */
+    public CreatedOrder createOrder(String idempotencyKey, InputOrder order)
+            throws IdempotencyKeyConflictException, DrinkNotFoundException {
+        String username = userService.getCurrentUser()
+                .map(UserResponse::getEmail)
+                .orElseThrow(() -> new BadCredentialsException(OrderServiceImpl.AUTHENTICATION_IS_REQUIRED));
+        Key key = new Key(username, idempotencyKey);
+        String requestHash = hash(order);
+
+        Optional<StoredOrder> stored = get(key);
+        if (stored.isEmpty()) stored = load(key);
+        if (stored.isPresent()) return replay(key, stored.get(), requestHash);
+
+        OrderCreator.PricedOrder pricedOrder = creator.price(order);
+        try {
+            return new CreatedOrder(create(key, requestHash, pricedOrder), false);
+        } catch (DataIntegrityViolationException ex) {
+            // The unique key has been taken by a concurrent request that created its order first
+            StoredOrder winner = load(key).orElseThrow(() -> ex);
+            return replay(key, winner, requestHash);
+        } catch (PessimisticLockingFailureException ex) {
+            throw new IdempotencyKeyConflictException(String.format(KEY_IN_USE_TEMPLATE, idempotencyKey));
+        }
+    }
+
+    /**
+     * Delete the keys whose TTL has passed, oldest first along the expiry index.
+     */
+    @Scheduled(
+            fixedDelayString = "#{@orderConfigurationProperties.idempotency.purgeInterval.toMillis()}",
+            initialDelayString = "#{@orderConfigurationProperties.idempotency.purgeInterval.toMillis()}"
+    )
+    public void purgeExpired() {
+        Integer purged = purgeTransaction.execute(status -> repository.deleteExpired(clock.instant()));
+        if (purged != null && purged > 0) log.info("Purged {} expired idempotency keys", purged);
+    }
+
+    private Order create(Key key, String requestHash, OrderCreator.PricedOrder pricedOrder)
+            throws DrinkNotFoundException {
+        TransactionStatus transaction = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+        Order created;
+        Instant expiresAt;
+        try {
+            // An expired key that has not been purged yet may be used again
+            repository.findByUsernameAndIdempotencyKey(key.username(), key.idempotencyKey())
+                    .ifPresent(expired -> {
+                        repository.delete(expired);
+                        repository.flush();
+                    });
+
+            created = creator.persist(pricedOrder);
+            expiresAt = clock.instant().plus(properties.getIdempotency().getTtl());
+            repository.saveAndFlush(OrderIdempotencyKeyEntity.builder()
+                    .username(key.username())
+                    .idempotencyKey(key.idempotencyKey())
+                    .requestHash(requestHash)
+                    .orderId(created.getId())
+                    .response(toJson(created))
+                    .expiresAt(expiresAt)
+                    .build());
+        } catch (RuntimeException | Error | DrinkNotFoundException ex) {
+            transactionManager.rollback(transaction);
+            throw ex;
+        }
+        transactionManager.commit(transaction);
+
+        put(key, new StoredOrder(requestHash, created), expiresAt);
+        log.debug("Order {} has been created with idempotency key {}", created.getId(), key);
+
+        return created;
+    }
+
+    private Optional<StoredOrder> load(Key key) {
+        return repository.findByUsernameAndIdempotencyKey(key.username(), key.idempotencyKey())
+                .filter(entity -> entity.getExpiresAt().isAfter(clock.instant()))
+                .map(entity -> {
+                    StoredOrder stored = new StoredOrder(entity.getRequestHash(), fromJson(entity.getResponse()));
+                    put(key, stored, entity.getExpiresAt());
+                    return stored;
+                });
+    }
+
+    private CreatedOrder replay(Key key, StoredOrder stored, String requestHash)
+            throws IdempotencyKeyConflictException {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyConflictException(String.format(KEY_REUSED_TEMPLATE, key.idempotencyKey()));
+        }
+        log.debug("Replayed order {} for idempotency key {}", stored.order().getId(), key);
+
+        return new CreatedOrder(stored.order(), true);
+    }
+
+    private String hash(InputOrder order) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(order)));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String toJson(Order order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Order fromJson(String response) {
+        try {
+            return objectMapper.readValue(response, Order.class);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * @param order    The created order, or the order created before with the same key.
+     * @param replayed Whether the order has been created before with the same key.
+     */
+    public record CreatedOrder(Order order, boolean replayed) {
+    }
+
+    /**
+     * @param username       The user the key belongs to; keys of different users never collide.
+     * @param idempotencyKey The key the client has sent.
+     */
+    public record Key(String username, String idempotencyKey) {
+    }
+
+    /**
+     * @param requestHash The hash of the request the order has been created for.
+     * @param order       The created order.
+     */
+    public record StoredOrder(String requestHash, Order order) {
+    }
+
+}
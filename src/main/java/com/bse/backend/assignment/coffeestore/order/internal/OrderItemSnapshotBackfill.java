@@ -0,0 +1,97 @@
+package com.bse.backend.assignment.coffeestore.order.internal;
+
+import com.bse.backend.assignment.coffeestore.drink.api.exception.DrinkNotFoundException;
+import com.bse.backend.assignment.coffeestore.order.internal.config.OrderConfigurationProperties;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.MenuLookup;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.MenuLookupLoader;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.OrderItemMapper;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Snapshots the catalog details into order items stored before
+ * {@link com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemSnapshot} existed.
+ * <p>
+ * Runs once on startup, one transaction per chunk of items. The snapshot takes the current catalog details,
+ * which is what those orders were rendered with until now. Items whose drink no longer exists are left as they are.
+ */
+@Component
+@Log4j2
+public class OrderItemSnapshotBackfill {
+
+    private final OrderRepository repository;
+    private final OrderItemMapper itemMapper;
+    private final MenuLookupLoader menuLookupLoader;
+    private final OrderConfigurationProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderItemSnapshotBackfill(OrderRepository repository, OrderItemMapper itemMapper,
+                                     MenuLookupLoader menuLookupLoader, OrderConfigurationProperties properties,
+                                     PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.itemMapper = itemMapper;
+        this.menuLookupLoader = menuLookupLoader;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.getSnapshotBackfill().isEnabled()) run();
+    }
+
+    /**
+     * @return the number of order items that have been snapshotted
+     */
+    public long run() {
+        int chunkSize = properties.getSnapshotBackfill().getChunkSize();
+        long afterId = 0L;
+        long snapshotted = 0;
+        long skipped = 0;
+
+        List<Long> ids;
+        do {
+            ids = repository.findUnsnapshottedItemIdsAfterId(afterId, Pageable.ofSize(chunkSize));
+            if (ids.isEmpty()) break;
+
+            List<Long> chunk = ids;
+            int updated = transactionTemplate.execute(status -> backfill(chunk));
+            snapshotted += updated;
+            skipped += chunk.size() - updated;
+            afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == chunkSize);
+
+        if (snapshotted > 0 || skipped > 0) {
+            log.info("Snapshotted {} order items, skipped {} with a drink that no longer exists", snapshotted, skipped);
+        }
+
+        return snapshotted;
+    }
+
+    private int backfill(List<Long> ids) {
+        List<OrderItemEntity> items = repository.findAllItemsByIdIn(ids);
+        MenuLookup menu = menuLookupLoader.forItems(items);
+
+        int updated = 0;
+        for (OrderItemEntity item : items) {
+            try {
+                item.setSnapshot(itemMapper.toSnapshot(item, menu));
+                updated++;
+            } catch (DrinkNotFoundException ex) {
+                log.debug("Order item {} references drink {} which no longer exists", item.getId(), item.getDrinkId());
+            }
+        }
+
+        return updated;
+    }
+
+}
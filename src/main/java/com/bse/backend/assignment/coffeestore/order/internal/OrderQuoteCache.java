@@ -0,0 +1,77 @@
+package com.bse.backend.assignment.coffeestore.order.internal;
+
+import com.bse.backend.assignment.coffeestore.common.cache.ExpiringLruCache;
+import com.bse.backend.assignment.coffeestore.drink.api.DrinkService;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderQuote;
+import com.bse.backend.assignment.coffeestore.order.internal.config.OrderConfigurationProperties;
+import com.bse.backend.assignment.coffeestore.topping.api.ToppingService;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+
+/**
+ * Order quotes by cart fingerprint, so identical carts are priced without any mapping or discount work.
+ * <p>
+ * A fingerprint is the sorted multiset of the cart items, each a drink id with its sorted distinct topping ids,
+ * plus the versions of the drinks and toppings: item order and repeated toppings do not change the price,
+ * and any catalog change moves every new lookup to a fresh key.
+ */
+@Component
+public class OrderQuoteCache extends ExpiringLruCache<OrderQuoteCache.CartFingerprint, OrderQuote> {
+
+    private final DrinkService drinkService;
+    private final ToppingService toppingService;
+
+    public OrderQuoteCache(OrderConfigurationProperties properties, DrinkService drinkService,
+                           ToppingService toppingService) {
+        super("order-quotes", properties.getQuoteCache().getMaxSize(), properties.getQuoteCache().getTtl(),
+                Clock.systemUTC());
+        this.drinkService = drinkService;
+        this.toppingService = toppingService;
+    }
+
+    /**
+     * @return The fingerprint of the cart, or an empty optional when the catalog has no stable version
+     * in the current transaction and the quote must not be memoized.
+     */
+    public Optional<CartFingerprint> fingerprint(InputOrder order) {
+        OptionalLong drinksVersion = drinkService.getVersion();
+        OptionalLong toppingsVersion = toppingService.getVersion();
+        if (drinksVersion.isEmpty() || toppingsVersion.isEmpty()) return Optional.empty();
+
+        String[] items = order.getItems()
+                .stream()
+                .map(OrderQuoteCache::canonicalItem)
+                .toArray(String[]::new);
+        Arrays.sort(items);
+
+        return Optional.of(new CartFingerprint(drinksVersion.getAsLong(), toppingsVersion.getAsLong(),
+                String.join("|", items)));
+    }
+
+    private static String canonicalItem(InputOrderItem item) {
+        List<Long> toppingIds = item.getToppingIds() == null ? List.of() : item.getToppingIds();
+
+        return item.getDrinkId() + ":" + toppingIds.stream()
+                .distinct()
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * @param drinksVersion   The version of the drinks the quote has been priced with.
+     * @param toppingsVersion The version of the toppings the quote has been priced with.
+     * @param cart            The canonical cart items.
+     */
+    public record CartFingerprint(long drinksVersion, long toppingsVersion, String cart) {
+    }
+
+}
@@ -1,103 +1,479 @@
 package com.bse.backend.assignment.coffeestore.order.internal;
 
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
 import com.bse.backend.assignment.coffeestore.drink.api.exception.DrinkNotFoundException;
 import com.bse.backend.assignment.coffeestore.order.api.OrderService;
+import com.bse.backend.assignment.coffeestore.order.api.exception.InvalidDateRangeException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.InvalidPageTokenException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.OrderBatchTooLargeException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.OrderConflictException;
 import com.bse.backend.assignment.coffeestore.order.api.exception.OrderNotFoundException;
 import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
 import com.bse.backend.assignment.coffeestore.order.api.model.Order;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderBatchItemResult;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderBatchResult;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderDeletionResult;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderEventPage;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderPage;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderQuote;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderSummary;
+import com.bse.backend.assignment.coffeestore.order.internal.config.OrderConfigurationProperties;
 import com.bse.backend.assignment.coffeestore.order.internal.discount.DiscountCalculator;
+import com.bse.backend.assignment.coffeestore.order.internal.event.OrderEventLog;
+import com.bse.backend.assignment.coffeestore.order.internal.event.OrderOutbox;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.MenuLookup;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.MenuLookupLoader;
+import com.bse.backend.assignment.coffeestore.order.internal.mapper.OrderItemMapper;
 import com.bse.backend.assignment.coffeestore.order.internal.mapper.OrderMapper;
 import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemEntity;
 import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderRepository;
 import com.bse.backend.assignment.coffeestore.security.api.UserService;
 import com.bse.backend.assignment.coffeestore.security.api.model.UserResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Log4j2
 @RequiredArgsConstructor
-@Transactional
-public class OrderServiceImpl implements OrderService {
+public class OrderServiceImpl implements OrderService, OrderCreator {
 
     public static final String AUTHENTICATION_IS_REQUIRED = "Authentication is required";
     public static final String ORDER_NOT_FOUND_TEMPLATE = "No orders found for user %s and id %s";
+    public static final String INVALID_PAGE_TOKEN = "Invalid page token";
+    public static final String ORDER_CONFLICT_TEMPLATE =
+            "Order %s has been modified: the update is based on version %s, the current version is %s";
+    public static final String INVALID_DATE_RANGE = "The start of the date range must be before its end";
+    public static final String BATCH_TOO_LARGE_TEMPLATE = "A batch must not contain more than %d orders";
+
+    private static final int EXPORT_CHUNK_SIZE = 100;
 
     private final UserService userService;
     private final DiscountCalculator discountCalculator;
     private final OrderMapper mapper;
+    private final OrderItemMapper itemMapper;
+    private final MenuLookupLoader menuLookupLoader;
+    private final OrderQuoteCache quoteCache;
+    private final OrderSummaryStore summaryStore;
+    private final OrderEventLog eventLog;
+    private final OrderOutbox outbox;
+    private final OrderWriter writer;
+    private final OrderConfigurationProperties properties;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
     private final OrderRepository repository;
 
     @Override
+    @Transactional(readOnly = true)
     public List<Order> getAllOrders() throws DrinkNotFoundException {
         UserResponse user = userService.getCurrentUser()
                 .orElseThrow(() -> new BadCredentialsException(AUTHENTICATION_IS_REQUIRED));
-        List<OrderEntity> orderEntities = repository.findAllByUsername(user.getEmail());
+        List<OrderEntity> orderEntities = repository.findAllGraphsByUsername(user.getEmail());
         log.debug("Found {} order entities", orderEntities.size());
 
-        return mapper.toDtoList(orderEntities);
+        return mapper.toDtoList(orderEntities, menuLookupLoader.forEntities(orderEntities));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPage getOrderPage(Integer limit, String pageToken)
+            throws DrinkNotFoundException, InvalidPageTokenException {
+        String username = userService.getCurrentUser()
+                .map(UserResponse::getEmail)
+                .orElseThrow(() -> new BadCredentialsException(AUTHENTICATION_IS_REQUIRED));
+
+        OrderConfigurationProperties.Page page = properties.getPage();
+        int size = Math.min(limit == null ? page.getDefaultSize() : limit, page.getMaxSize());
+        long afterId = decodePageToken(pageToken);
+
+        // One extra row tells whether there is a next page without a count query
+        List<OrderEntity> orderEntities = repository.findGraphPageByUsername(username, afterId, size + 1);
+        boolean hasNext = orderEntities.size() > size;
+        if (hasNext) orderEntities = orderEntities.subList(0, size);
+        log.debug("Found {} order entities for user {} after id {}", orderEntities.size(), username, afterId);
+
+        return OrderPage.builder()
+                .items(mapper.toDtoList(orderEntities, menuLookupLoader.forEntities(orderEntities)))
+                .nextPageToken(hasNext ? encodePageToken(orderEntities.get(size - 1).getId()) : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderSummary getOrderSummary() {
+        String username = userService.getCurrentUser()
+                .map(UserResponse::getEmail)
+                .orElseThrow(() -> new BadCredentialsException(AUTHENTICATION_IS_REQUIRED));
+
+        OrderSummary summary = summaryStore.read(username);
+        log.debug("Order summary of user {}: {}", username, summary);
+
+        return summary;
+    }
+
+    @Override
+    public OrderEventPage getOrderEvents(Long from, Integer limit) {
+        OrderEventPage page = eventLog.read(from, limit);
+        log.debug("Read {} order events from {}", page.getEvents().size(), from);
+
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(OutputStream outputStream) throws IOException, DrinkNotFoundException {
+        String username = userService.getCurrentUser()
+                .map(UserResponse::getEmail)
+                .orElseThrow(() -> new BadCredentialsException(AUTHENTICATION_IS_REQUIRED));
+
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        long exported = 0;
+        long afterId = 0L;
+        List<OrderEntity> orderEntities;
+        do {
+            orderEntities = repository.findGraphPageByUsername(username, afterId, EXPORT_CHUNK_SIZE);
+            if (orderEntities.isEmpty()) break;
+
+            for (Order order : mapper.toDtoList(orderEntities, menuLookupLoader.forEntities(orderEntities))) {
+                writer.writeValue(generator, order);
+                generator.writeRaw('\n');
+            }
+            exported += orderEntities.size();
+            afterId = orderEntities.get(orderEntities.size() - 1).getId();
+
+            generator.flush();
+            // Keep the persistence context from growing with the number of exported orders
+            entityManager.clear();
+        } while (orderEntities.size() == EXPORT_CHUNK_SIZE);
+
+        generator.close();
+        log.debug("Exported {} orders for user {}", exported, username);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Order getOrderById(Long id) throws OrderNotFoundException, DrinkNotFoundException {
         String username = userService.getCurrentUser()
                 .map(UserResponse::getEmail)
                 .orElseThrow(() -> new BadCredentialsException(AUTHENTICATION_IS_REQUIRED));
 
-        OrderEntity order = repository.findByUsernameAndId(username, id)
+        OrderEntity order = repository.findGraphByUsernameAndId(username, id)
                 .orElseThrow(() -> new OrderNotFoundException(String.format(ORDER_NOT_FOUND_TEMPLATE, username, id)));
         log.debug("Found {} order for user {} by id {}", order, username, id);
 
-        return mapper.toDto(order);
+        return mapper.toDto(order, menuLookupLoader.forEntity(order));
     }
 
     @Override
     public Order createOrder(InputOrder newOrder) throws DrinkNotFoundException {
+        // Priced against the cached menu before the write transaction, which then only holds a connection to insert
+        return persist(price(newOrder));
+    }
+
+    @Override
+    public PricedOrder price(InputOrder newOrder) throws DrinkNotFoundException {
         UserResponse user = userService.getCurrentUser()
                 .orElseThrow(() -> new BadCredentialsException(AUTHENTICATION_IS_REQUIRED));
-        OrderEntity entity = mapper.toEntity(user, newOrder);
-
+        MenuLookup menu = menuLookupLoader.forInput(newOrder);
+        OrderEntity entity = mapper.toEntity(user, newOrder, menu);
         applyDiscount(entity);
-        OrderEntity savedOrder = repository.save(entity);
+
+        return new PricedOrder(entity, menu);
+    }
+
+    @Override
+    public Order persist(PricedOrder order) throws DrinkNotFoundException {
+        OrderEntity savedOrder = writer.create(order.entity());
+        eventLog.created(savedOrder);
         log.debug("New Order has been successfully created: {}", savedOrder);
 
-        return mapper.toDto(savedOrder);
+        return mapper.toDto(savedOrder, order.menu());
     }
 
     @Override
-    public Order updateOrder(Long id, InputOrder order) throws OrderNotFoundException, DrinkNotFoundException {
+    public OrderBatchResult createOrders(List<InputOrder> newOrders)
+            throws OrderBatchTooLargeException, DrinkNotFoundException {
+        int maxSize = properties.getBatch().getMaxSize();
+        if (newOrders.size() > maxSize) {
+            throw new OrderBatchTooLargeException(String.format(BATCH_TOO_LARGE_TEMPLATE, maxSize));
+        }
         UserResponse user = userService.getCurrentUser()
                 .orElseThrow(() -> new BadCredentialsException(AUTHENTICATION_IS_REQUIRED));
-        String username = user.getEmail();
-        OrderEntity entity = repository.findByUsernameAndId(username, id)
+        MenuLookup menu = menuLookupLoader.forInputs(newOrders);
+
+        OrderBatchItemResult[] results = new OrderBatchItemResult[newOrders.size()];
+        List<OrderEntity> entities = new ArrayList<>(newOrders.size());
+        List<Integer> entityIndexes = new ArrayList<>(newOrders.size());
+        for (int i = 0; i < newOrders.size(); i++) {
+            try {
+                OrderEntity entity = mapper.toEntity(user, newOrders.get(i), menu);
+                applyDiscount(entity);
+                entities.add(entity);
+                entityIndexes.add(i);
+            } catch (DrinkNotFoundException ex) {
+                results[i] = OrderBatchItemResult.builder()
+                        .index(i)
+                        .success(false)
+                        .error(ex.getMessage())
+                        .build();
+            }
+        }
+
+        // Priced before the write transaction, which only inserts the orders
+        List<OrderEntity> savedOrders = writer.createAll(entities);
+        eventLog.createdAll(savedOrders);
+        log.debug("{} of {} new Orders have been successfully created", savedOrders.size(), newOrders.size());
+
+        for (int i = 0; i < savedOrders.size(); i++) {
+            int index = entityIndexes.get(i);
+            results[index] = OrderBatchItemResult.builder()
+                    .index(index)
+                    .success(true)
+                    .order(mapper.toDto(savedOrders.get(i), menu))
+                    .build();
+        }
+
+        return OrderBatchResult.builder()
+                .created(savedOrders.size())
+                .failed(newOrders.size() - savedOrders.size())
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    @Override
+    public OrderQuote quoteOrder(InputOrder order) throws DrinkNotFoundException {
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            return OrderQuote.builder()
+                    .originalPrice(BigDecimal.ZERO)
+                    .discount(BigDecimal.ZERO)
+                    .price(BigDecimal.ZERO)
+                    .build();
+        }
+
+        Optional<OrderQuoteCache.CartFingerprint> fingerprint = quoteCache.fingerprint(order);
+        Optional<OrderQuote> cached = fingerprint.flatMap(quoteCache::get);
+        if (cached.isPresent()) return cached.get();
+
+        // A transient entity: it is priced exactly like a new order but never persisted
+        OrderEntity entity = mapper.toEntity(null, order, menuLookupLoader.forInput(order));
+        BigDecimal discount = discountCalculator.calculateDiscount(entity);
+        OrderQuote quote = OrderQuote.builder()
+                .originalPrice(entity.getPrice())
+                .discount(discount)
+                .price(entity.getPrice().subtract(discount))
+                .build();
+        fingerprint.ifPresent(key -> quoteCache.put(key, quote));
+        log.debug("Quoted order {}: {}", fingerprint.orElse(null), quote);
+
+        return quote;
+    }
+
+    @Override
+    @Transactional
+    public Order updateOrder(Long id, InputOrder order)
+            throws OrderNotFoundException, OrderConflictException, DrinkNotFoundException {
+        String username = userService.getCurrentUser()
+                .map(UserResponse::getEmail)
+                .orElseThrow(() -> new BadCredentialsException(AUTHENTICATION_IS_REQUIRED));
+        OrderEntity entity = repository.findGraphByUsernameAndId(username, id)
                 .orElseThrow(() -> new OrderNotFoundException(String.format(ORDER_NOT_FOUND_TEMPLATE, username, id)));
         log.debug("Update order {} for user {} with values {}", entity, username, order);
 
-        if (order == null) return mapper.toDto(entity);
+        if (order == null) return mapper.toDto(entity, menuLookupLoader.forEntity(entity));
 
-        OrderEntity updatedEntity = mapper.toEntity(user, order);
-        updatedEntity.setId(id);
-        applyDiscount(entity);
-        updatedEntity = repository.save(updatedEntity);
-        log.debug("Order has been successfully updated: {}", updatedEntity);
+        Long version = entity.getVersion();
+        if (order.getVersion() != null && !order.getVersion().equals(version)) {
+            throw new OrderConflictException(String.format(ORDER_CONFLICT_TEMPLATE, id, order.getVersion(), version));
+        }
+
+        BigDecimal formerPrice = entity.getPrice();
+        BigDecimal formerDiscount = entity.getDiscount();
+        if (mergeItems(entity, order.getItems())) {
+            BigDecimal price = BigDecimal.ZERO;
+            for (OrderItemEntity item : entity.getOrderItems()) price = price.add(item.getPrice());
+            entity.setPrice(price);
+            entity.setOriginalPrice(null);
+            entity.setDiscount(null);
+            applyDiscount(entity);
+            repository.flush();
+            summaryStore.repriced(entity, formerPrice, formerDiscount);
 
-        return mapper.toDto(updatedEntity);
+            // Item changes alone do not touch the order row, but they are still a new version of the order
+            if (Objects.equals(entity.getVersion(), version)) {
+                entityManager.lock(entity, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+            }
+            outbox.updated(entity);
+            eventLog.updated(entity);
+            log.debug("Order has been successfully updated: {}", entity);
+        }
+
+        return mapper.toDto(entity, menuLookupLoader.forEntity(entity));
     }
 
     @Override
+    @Transactional
     public void deleteOrder(Long id) {
         String username = userService.getCurrentUser()
                 .map(UserResponse::getEmail)
                 .orElseThrow(() -> new BadCredentialsException(AUTHENTICATION_IS_REQUIRED));
 
-        repository.deleteByUsernameAndId(username, id);
-        log.debug("Order with id {} has been deleted for user {}", id, username);
+        summaryStore.deleting(username, id);
+        int items = repository.deleteItemsByUsernameAndId(username, id);
+        int orders = repository.deleteOrdersByUsernameAndId(username, id);
+        if (orders > 0) {
+            outbox.deleted(username, id);
+            eventLog.deleted(username, id);
+        }
+        log.debug("Deleted {} order with id {} and {} items for user {}", orders, id, items, username);
+    }
+
+    @Override
+    @Transactional
+    public OrderDeletionResult deleteAllOrders() {
+        String username = userService.getCurrentUser()
+                .map(UserResponse::getEmail)
+                .orElseThrow(() -> new BadCredentialsException(AUTHENTICATION_IS_REQUIRED));
+
+        summaryStore.deletingAll(username);
+        int items = repository.deleteItemsByUsername(username);
+        int orders = repository.deleteOrdersByUsername(username);
+        if (orders > 0) {
+            outbox.userOrdersDeleted(username, orders);
+            eventLog.userOrdersDeleted(username, orders);
+        }
+        log.info("Deleted {} orders and {} items of user {}", orders, items, username);
+
+        return OrderDeletionResult.builder()
+                .orders(orders)
+                .items(items)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public OrderDeletionResult deleteOrdersCreatedBetween(Instant from, Instant to) throws InvalidDateRangeException {
+        if (from == null || to == null || !from.isBefore(to)) throw new InvalidDateRangeException(INVALID_DATE_RANGE);
+
+        summaryStore.deletingCreatedBetween(from, to);
+        int items = repository.deleteItemsCreatedBetween(from, to);
+        int orders = repository.deleteOrdersCreatedBetween(from, to);
+        if (orders > 0) {
+            outbox.deletedCreatedBetween(from, to, orders);
+            eventLog.deletedCreatedBetween(from, to, orders);
+        }
+        log.info("Deleted {} orders and {} items created from {} to {}", orders, items, from, to);
+
+        return OrderDeletionResult.builder()
+                .orders(orders)
+                .items(items)
+                .build();
+    }
+
+    private static String encodePageToken(Long lastId) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(lastId.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long decodePageToken(String pageToken) throws InvalidPageTokenException {
+        if (pageToken == null || pageToken.isEmpty()) return 0L;
+
+        try {
+            byte[] decoded = Base64.getUrlDecoder().decode(pageToken);
+            long lastId = Long.parseLong(new String(decoded, StandardCharsets.US_ASCII));
+            if (lastId < 0) throw new InvalidPageTokenException(INVALID_PAGE_TOKEN);
+
+            return lastId;
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidPageTokenException(INVALID_PAGE_TOKEN);
+        }
+    }
+
+    /**
+     * Brings the stored items in line with the requested ones, touching as few rows as possible:
+     * items requested unchanged keep their row and price, changed items reuse the rows of removed items
+     * and only the remaining rows are inserted or deleted. Only changed items are priced against the catalog.
+     *
+     * @return whether any item has been added, changed or removed
+     */
+    private boolean mergeItems(OrderEntity entity, List<InputOrderItem> inputItems) throws DrinkNotFoundException {
+        List<OrderItemEntity> storedItems = entity.getOrderItems();
+        Map<OrderItemKey, Deque<OrderItemEntity>> unmatched = new HashMap<>();
+        for (OrderItemEntity item : storedItems) {
+            unmatched.computeIfAbsent(new OrderItemKey(item.getDrinkId(), item.getToppingIds()),
+                    key -> new ArrayDeque<>()).add(item);
+        }
+
+        OrderItemEntity[] mergedItems = new OrderItemEntity[inputItems.size()];
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < inputItems.size(); i++) {
+            InputOrderItem input = inputItems.get(i);
+            Deque<OrderItemEntity> candidates = unmatched.get(
+                    new OrderItemKey(input.getDrinkId(), LongList.copyOf(input.getToppingIds())));
+            if (candidates != null && !candidates.isEmpty()) {
+                mergedItems[i] = candidates.poll();
+            } else {
+                changed.add(i);
+            }
+        }
+        if (changed.isEmpty() && storedItems.size() == inputItems.size()) return false;
+
+        Deque<OrderItemEntity> reusable = unmatched.values()
+                .stream()
+                .flatMap(Deque::stream)
+                .sorted(Comparator.comparing(OrderItemEntity::getId))
+                .collect(Collectors.toCollection(ArrayDeque::new));
+        MenuLookup menu = menuLookupLoader.forInput(InputOrder.builder()
+                .items(changed.stream().map(inputItems::get).toList())
+                .build());
+        for (int i : changed) {
+            OrderItemEntity item = reusable.poll();
+            if (item == null) {
+                item = itemMapper.toEntity(inputItems.get(i), menu);
+                item.setOrder(entity);
+            } else {
+                itemMapper.updateEntity(inputItems.get(i), item, menu);
+            }
+            mergedItems[i] = item;
+        }
+
+        // Rows left in reusable are orphans now and get deleted
+        storedItems.clear();
+        storedItems.addAll(Arrays.asList(mergedItems));
+        log.debug("Merged order items: {} changed, {} removed", changed.size(), reusable.size());
+
+        return true;
     }
 
     private void applyDiscount(OrderEntity entity) {
@@ -109,4 +485,12 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    private record OrderItemKey(Long drinkId, LongList toppingIds) {
+
+        private OrderItemKey {
+            if (toppingIds == null) toppingIds = LongList.of();
+        }
+
+    }
+
 }
@@ -0,0 +1,214 @@
+package com.bse.backend.assignment.coffeestore.order.internal;
+
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderSummary;
+import com.bse.backend.assignment.coffeestore.order.internal.config.OrderConfigurationProperties;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderRepository;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderSummaryRepository;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderTotals;
+import jakarta.persistence.EntityManager;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.Savepoint;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * The order totals of a user. They are aggregated from the user's orders on every read, unless summaries are
+ * maintained: then every transaction that creates, reprices or deletes orders also updates a summary row per user,
+ * and reads take that row, whatever the length of the order history.
+ * <p>
+ * A summary row is seeded from the user's orders the first time a transaction changes them, in that transaction and
+ * on its connection, so no second connection is taken while the first one is held. Reads do not seed; they sum the
+ * orders until the user's row exists. Two transactions seeding the same row queue on its key, and the one that loses
+ * adds its change to the row of the other instead. Deletes update the row as well rather than drop it, so the row
+ * stays locked until the deleted orders are gone and no seed can count them.
+ * <p>
+ * Rows carry the configured summary generation. Rows of another generation are ignored by reads and seeded again by
+ * the next change, so bumping the generation rebuilds the rows user by user, e.g. after orders have been written
+ * while summaries were not maintained.
+ */
+@Component
+@Log4j2
+public class OrderSummaryStore {
+
+    private static final String SQL_DELETE_STALE =
+            "DELETE FROM order_summaries WHERE username = ? AND (generation IS NULL OR generation <> ?)";
+    private static final String SQL_INSERT_FROM_ORDERS =
+            "INSERT INTO order_summaries (username, generation, orders_placed, total_spent, total_saved, "
+                    + "last_order_at) SELECT ?, ?, COUNT(*), COALESCE(SUM(price), 0), COALESCE(SUM(discount), 0), "
+                    + "MAX(created_at) FROM orders WHERE username = ?";
+
+    private final OrderRepository orderRepository;
+    private final OrderSummaryRepository repository;
+    private final OrderConfigurationProperties properties;
+    private final EntityManager entityManager;
+
+    public OrderSummaryStore(OrderRepository orderRepository, OrderSummaryRepository repository,
+                             OrderConfigurationProperties properties, EntityManager entityManager) {
+        this.orderRepository = orderRepository;
+        this.repository = repository;
+        this.properties = properties;
+        this.entityManager = entityManager;
+    }
+
+    public boolean isMaintained() {
+        return properties.getSummary().isMaintained();
+    }
+
+    public OrderSummary read(String username) {
+        OrderTotals totals = isMaintained()
+                ? repository.findTotalsByUsername(username, generation())
+                        .orElseGet(() -> orderRepository.sumByUsername(username))
+                : orderRepository.sumByUsername(username);
+
+        return OrderSummary.builder()
+                .ordersPlaced(totals.ordersPlaced())
+                .totalSpent(totals.totalSpent())
+                .totalSaved(totals.totalSaved())
+                .lastOrderAt(totals.lastOrderAt())
+                .build();
+    }
+
+    /**
+     * Add new orders to the summaries of their users; must be called in the transaction that inserts them, once the
+     * inserts have been flushed.
+     */
+    public void created(List<OrderEntity> orders) {
+        if (!isMaintained()) return;
+
+        Map<String, OrderTotals> added = new LinkedHashMap<>();
+        for (OrderEntity order : orders) {
+            added.merge(order.getUsername(), totalsOf(order), OrderSummaryStore::sum);
+        }
+        added.forEach((username, totals) -> update(username, true, () -> repository.addOrders(username,
+                generation(), totals.ordersPlaced(), totals.totalSpent(), totals.totalSaved(), totals.lastOrderAt())));
+    }
+
+    /**
+     * Replace the former price and discount of an order in the summary of its user; must be called in the
+     * transaction that reprices the order, once the new price has been flushed.
+     */
+    public void repriced(OrderEntity order, BigDecimal formerPrice, BigDecimal formerDiscount) {
+        if (!isMaintained()) return;
+
+        BigDecimal spent = order.getPrice().subtract(formerPrice);
+        BigDecimal saved = orZero(order.getDiscount()).subtract(orZero(formerDiscount));
+        if (spent.signum() == 0 && saved.signum() == 0) return;
+
+        String username = order.getUsername();
+        update(username, true, () -> repository.addAmounts(username, generation(), spent, saved));
+    }
+
+    /**
+     * Take an order out of the summary of its user; must be called in the transaction that deletes the order,
+     * before it is deleted.
+     */
+    public void deleting(String username, Long id) {
+        if (!isMaintained()) return;
+
+        OrderTotals order = orderRepository.sumByUsernameAndId(username, id);
+        if (order.ordersPlaced() == 0) return;
+
+        update(username, false,
+                () -> repository.removeOrder(username, generation(), id, order.totalSpent(), order.totalSaved()));
+    }
+
+    /**
+     * Reset the summary of a user whose orders are all deleted in the current transaction.
+     */
+    public void deletingAll(String username) {
+        if (!isMaintained()) return;
+
+        update(username, false, () -> repository.resetByUsername(username, generation()));
+    }
+
+    /**
+     * Take the orders created in the date range out of the summaries of their users; must be called in the
+     * transaction that deletes them, before they are deleted.
+     */
+    public void deletingCreatedBetween(Instant from, Instant to) {
+        if (!isMaintained()) return;
+
+        List<String> usernames = orderRepository.findUsernamesCreatedBetween(from, to);
+        for (String username : usernames) {
+            OrderTotals orders = orderRepository.sumByUsernameCreatedBetween(username, from, to);
+            update(username, false, () -> repository.removeOrdersCreatedBetween(username, generation(), from, to,
+                    orders.ordersPlaced(), orders.totalSpent(), orders.totalSaved()));
+        }
+        log.debug("Updated {} order summaries for orders created from {} to {}", usernames.size(), from, to);
+    }
+
+    /**
+     * @param seedCountsChange Whether the change has been flushed already, so that a seed counts it.
+     * @param update           The relative update of the user's row; it returns 0 if the row is missing or stale.
+     */
+    private void update(String username, boolean seedCountsChange, IntSupplier update) {
+        if (update.getAsInt() > 0) return;
+        if (seed(username) && seedCountsChange) return;
+
+        update.getAsInt();
+    }
+
+    /**
+     * Replace a missing or stale row of a user by one summed up from the user's orders, as the current transaction
+     * sees them. A savepoint keeps the transaction going if another one has seeded the row first.
+     *
+     * @return Whether this transaction has seeded the row.
+     */
+    private boolean seed(String username) {
+        int generation = generation();
+
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement deleteStale = connection.prepareStatement(SQL_DELETE_STALE);
+                 PreparedStatement insert = connection.prepareStatement(SQL_INSERT_FROM_ORDERS)) {
+                deleteStale.setString(1, username);
+                deleteStale.setInt(2, generation);
+                deleteStale.executeUpdate();
+                insert.setString(1, username);
+                insert.setInt(2, generation);
+                insert.setString(3, username);
+                insert.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+                log.debug("Seeded the order summary of user {}", username);
+
+                return true;
+            } catch (SQLIntegrityConstraintViolationException | SQLTransactionRollbackException ex) {
+                connection.rollback(savepoint);
+                log.debug("Order summary of user {} has been seeded concurrently", username);
+
+                return false;
+            }
+        });
+    }
+
+    private int generation() {
+        return properties.getSummary().getGeneration();
+    }
+
+    private static OrderTotals totalsOf(OrderEntity order) {
+        return new OrderTotals(1, order.getPrice(), orZero(order.getDiscount()), order.getCreatedAt());
+    }
+
+    private static OrderTotals sum(OrderTotals a, OrderTotals b) {
+        Instant last = a.lastOrderAt().isBefore(b.lastOrderAt()) ? b.lastOrderAt() : a.lastOrderAt();
+
+        return new OrderTotals(a.ordersPlaced() + b.ordersPlaced(), a.totalSpent().add(b.totalSpent()),
+                a.totalSaved().add(b.totalSaved()), last);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.bse.backend.assignment.coffeestore.order.internal;
+
+import com.bse.backend.assignment.coffeestore.order.internal.event.OrderOutbox;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Inserts new orders. Orders that have been priced outside a transaction are inserted in a short one of their own;
+ * the summary rows and the outbox are updated in the same transaction, once the inserts have been flushed and the
+ * orders have their creation time.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderWriter {
+
+    private final OrderRepository repository;
+    private final OrderSummaryStore summaryStore;
+    private final OrderOutbox outbox;
+
+    @Transactional
+    public OrderEntity create(OrderEntity order) {
+        return createAll(List.of(order)).get(0);
+    }
+
+    /**
+     * Sequence ids are assigned on persist, so the inserts are sent in JDBC batches on the flush.
+     */
+    @Transactional
+    public List<OrderEntity> createAll(List<OrderEntity> orders) {
+        List<OrderEntity> savedOrders = repository.saveAll(orders);
+        repository.flush();
+
+        summaryStore.created(savedOrders);
+        outbox.created(savedOrders);
+
+        return savedOrders;
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.bse.backend.assignment.coffeestore.order.internal;
+
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
+import com.bse.backend.assignment.coffeestore.common.collection.PackedLongs;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves the topping ids of order items stored before they were packed into a column of the items out of the
+ * former {@value #LEGACY_TABLE} collection table, and drops the table once all items have been moved.
+ * <p>
+ * Runs once on startup, one transaction per chunk of items, after the schema is in place and before orders
+ * are read. The collection table had no order column, so the ids are read back in the order they were inserted.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@Log4j2
+public class ToppingIdsMigration implements InitializingBean {
+
+    static final String LEGACY_TABLE = "order_item_entity_topping_ids";
+    private static final int CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ToppingIdsMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        run();
+    }
+
+    /**
+     * @return the number of order items whose topping ids have been moved
+     */
+    public long run() {
+        Integer tables = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_NAME) = UPPER(?)",
+                Integer.class, LEGACY_TABLE);
+        if (tables == null || tables == 0) return 0;
+
+        long migrated = 0;
+        long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM order_items WHERE topping_ids IS NULL AND id > ? ORDER BY id LIMIT ?",
+                    Long.class, afterId, CHUNK_SIZE);
+            if (ids.isEmpty()) break;
+
+            List<Long> chunk = ids;
+            transactionTemplate.executeWithoutResult(status -> migrate(chunk));
+            migrated += chunk.size();
+            afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == CHUNK_SIZE);
+
+        jdbcTemplate.execute("DROP TABLE " + LEGACY_TABLE);
+        log.info("Packed the topping ids of {} order items and dropped {}", migrated, LEGACY_TABLE);
+
+        return migrated;
+    }
+
+    private void migrate(List<Long> ids) {
+        Map<Long, List<Long>> toppingIds = new LinkedHashMap<>();
+        for (Long id : ids) toppingIds.put(id, new ArrayList<>());
+
+        // Rows of items outside the chunk within the id range are skipped
+        jdbcTemplate.query("SELECT order_item_entity_id, topping_ids FROM " + LEGACY_TABLE
+                        + " WHERE order_item_entity_id BETWEEN ? AND ? ORDER BY order_item_entity_id, _ROWID_",
+                rs -> {
+                    List<Long> itemToppingIds = toppingIds.get(rs.getLong(1));
+                    if (itemToppingIds != null) itemToppingIds.add(rs.getLong(2));
+                },
+                ids.get(0), ids.get(ids.size() - 1));
+
+        jdbcTemplate.batchUpdate("UPDATE order_items SET topping_ids = ? WHERE id = ?", toppingIds.entrySet(),
+                CHUNK_SIZE, (ps, item) -> {
+                    ps.setBytes(1, PackedLongs.pack(LongList.copyOf(item.getValue())));
+                    ps.setLong(2, item.getKey());
+                });
+    }
+
+}
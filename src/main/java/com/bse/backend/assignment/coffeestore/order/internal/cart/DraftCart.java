@@ -0,0 +1,283 @@
+package com.bse.backend.assignment.coffeestore.order.internal.cart;
+
+import com.bse.backend.assignment.coffeestore.order.api.exception.CartNotFoundException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.CartTooLargeException;
+import com.bse.backend.assignment.coffeestore.order.api.exception.EmptyCartException;
+import com.bse.backend.assignment.coffeestore.order.api.model.Cart;
+import com.bse.backend.assignment.coffeestore.order.api.model.CartItem;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderItem;
+import com.bse.backend.assignment.coffeestore.order.internal.discount.CartSummary;
+import com.bse.backend.assignment.coffeestore.order.internal.discount.DiscountCalculator;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemSnapshot;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * A cart that is edited item by item before it is placed as an order. The figures the discount rules look at are
+ * kept up to date on every edit instead of being recalculated from all items: the total and the item count are
+ * adjusted, and the items are kept sorted by price, so the cheapest item is known in logarithmic time.
+ * The best discount is then found on long cents through {@link DiscountCalculator} without going over the items.
+ * <p>
+ * Every read and edit holds the lock of the cart, as the same cart may be edited by parallel requests.
+ */
+public class DraftCart {
+
+    public static final String CART_NOT_FOUND_TEMPLATE = "No carts found for id %s";
+    public static final String CART_ITEM_NOT_FOUND_TEMPLATE = "No items found in cart %s for id %s";
+    public static final String CART_TOO_LARGE_TEMPLATE = "A cart must not contain more than %d items";
+    public static final String EMPTY_CART_TEMPLATE = "Cart %s has no items to order";
+
+    // The cheapest item first; the item added first wins on ties, like in a full scan of the items
+    private static final Comparator<Line> BY_PRICE = Comparator.comparingLong(Line::cents)
+            .thenComparingLong(Line::id);
+
+    private final String id;
+    private final String username;
+    private final int maxItems;
+    private final DiscountCalculator discountCalculator;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<Long, Line> lines = new LinkedHashMap<>();
+    // Items whose price cannot be held as long cents are not in here and the cart is priced rule by rule
+    private final TreeSet<Line> linesByPrice = new TreeSet<>(BY_PRICE);
+    // Number of items per price scale: a sum of BigDecimals has the largest scale of its terms
+    private final TreeMap<Integer, Integer> priceScales = new TreeMap<>();
+
+    private long nextLineId = 1;
+    private BigDecimal total = BigDecimal.ZERO;
+    private BigDecimal originalPrice = BigDecimal.ZERO;
+    private BigDecimal discount = BigDecimal.ZERO;
+    private boolean closed;
+
+    public DraftCart(String id, String username, int maxItems, DiscountCalculator discountCalculator) {
+        this.id = id;
+        this.username = username;
+        this.maxItems = maxItems;
+        this.discountCalculator = discountCalculator;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * @return The cart with its items and current prices.
+     * @throws CartNotFoundException if the cart has been ordered or deleted.
+     */
+    public Cart view() throws CartNotFoundException {
+        lock.lock();
+        try {
+            checkOpen();
+
+            return toDto();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add a priced item and reprice the cart.
+     *
+     * @param item The item, priced and snapshotted against the catalog.
+     * @param view The item as it is shown in the cart.
+     * @return The cart with the item added.
+     * @throws CartNotFoundException if the cart has been ordered or deleted.
+     * @throws CartTooLargeException if the cart already has the maximum number of items.
+     */
+    public Cart addItem(OrderItemEntity item, OrderItem view) throws CartNotFoundException, CartTooLargeException {
+        lock.lock();
+        try {
+            checkOpen();
+            if (lines.size() >= maxItems) {
+                throw new CartTooLargeException(String.format(CART_TOO_LARGE_TEMPLATE, maxItems));
+            }
+
+            long lineId = nextLineId++;
+            Line line = new Line(lineId, item, CartItem.builder()
+                    .id(lineId)
+                    .drink(view.getDrink())
+                    .toppings(view.getToppings())
+                    .price(view.getPrice())
+                    .build(), CartSummary.toCents(item.getPrice()));
+            lines.put(lineId, line);
+            if (line.exact()) linesByPrice.add(line);
+            priceScales.merge(item.getPrice().scale(), 1, Integer::sum);
+            total = total.add(item.getPrice());
+            reprice();
+
+            return toDto();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove an item and reprice the cart.
+     *
+     * @param itemId The ID of the item within the cart.
+     * @return The cart without the item.
+     * @throws CartNotFoundException if the cart has been ordered or deleted, or it has no item with the ID.
+     */
+    public Cart removeItem(long itemId) throws CartNotFoundException {
+        lock.lock();
+        try {
+            checkOpen();
+            Line line = lines.remove(itemId);
+            if (line == null) throw new CartNotFoundException(String.format(CART_ITEM_NOT_FOUND_TEMPLATE, id, itemId));
+
+            if (line.exact()) linesByPrice.remove(line);
+            priceScales.computeIfPresent(line.item().getPrice().scale(),
+                    (scale, count) -> count == 1 ? null : count - 1);
+            total = total.subtract(line.item().getPrice());
+            reprice();
+
+            return toDto();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Place the cart as an order. The cart stays open if the order cannot be placed, and is closed otherwise,
+     * so it is ordered at most once even if it is checked out by parallel requests.
+     *
+     * @param placeOrder Persists the order built from the cart and returns the persisted order.
+     * @return The persisted order.
+     * @throws CartNotFoundException if the cart has been ordered or deleted.
+     * @throws EmptyCartException    if the cart has no items.
+     */
+    public OrderEntity checkout(UnaryOperator<OrderEntity> placeOrder)
+            throws CartNotFoundException, EmptyCartException {
+        lock.lock();
+        try {
+            checkOpen();
+            if (lines.isEmpty()) throw new EmptyCartException(String.format(EMPTY_CART_TEMPLATE, id));
+
+            OrderEntity order = OrderEntity.builder()
+                    .username(username)
+                    .price(originalPrice)
+                    .build();
+            List<OrderItemEntity> orderItems = new ArrayList<>(lines.size());
+            for (Line line : lines.values()) {
+                orderItems.add(copyItem(line.item(), order));
+            }
+            order.setOrderItems(orderItems);
+            if (discount.signum() > 0) {
+                order.setOriginalPrice(originalPrice);
+                order.setDiscount(discount);
+                order.setPrice(originalPrice.subtract(discount));
+            }
+
+            OrderEntity placedOrder = placeOrder.apply(order);
+            closed = true;
+
+            return placedOrder;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close the cart, so it can no longer be viewed, edited or ordered.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkOpen() throws CartNotFoundException {
+        if (closed) throw new CartNotFoundException(String.format(CART_NOT_FOUND_TEMPLATE, id));
+    }
+
+    private void reprice() {
+        if (lines.isEmpty()) {
+            total = BigDecimal.ZERO;
+            originalPrice = BigDecimal.ZERO;
+            discount = BigDecimal.ZERO;
+            return;
+        }
+
+        // Exact, as every item price is a multiple of the smallest unit at the largest scale
+        originalPrice = total.setScale(priceScales.lastKey(), RoundingMode.UNNECESSARY);
+        discount = discountCalculator.calculateDiscount(summarize(), this::toTransientOrder);
+    }
+
+    private CartSummary summarize() {
+        if (linesByPrice.size() != lines.size()) return null;
+
+        Long totalCents = CartSummary.toCents(originalPrice);
+        if (totalCents == null) return null;
+
+        Line cheapest = linesByPrice.first();
+        return new CartSummary(totalCents, originalPrice.scale(), lines.size(), cheapest.cents(),
+                cheapest.item().getPrice());
+    }
+
+    private OrderEntity toTransientOrder() {
+        return OrderEntity.builder()
+                .price(originalPrice)
+                .orderItems(lines.values().stream().map(Line::item).toList())
+                .build();
+    }
+
+    private Cart toDto() {
+        return Cart.builder()
+                .id(id)
+                .originalPrice(originalPrice)
+                .discount(discount)
+                .price(originalPrice.subtract(discount))
+                .items(lines.values().stream().map(Line::view).toList())
+                .build();
+    }
+
+    private static OrderItemEntity copyItem(OrderItemEntity item, OrderEntity order) {
+        OrderItemSnapshot snapshot = item.getSnapshot();
+
+        return OrderItemEntity.builder()
+                .order(order)
+                .drinkId(item.getDrinkId())
+                .toppingIds(item.getToppingIds())
+                .price(item.getPrice())
+                .snapshot(OrderItemSnapshot.builder()
+                        .drinkName(snapshot.getDrinkName())
+                        .drinkPrice(snapshot.getDrinkPrice())
+                        .toppings(new ArrayList<>(snapshot.getToppings()))
+                        .build())
+                .build();
+    }
+
+    /**
+     * @param id    The ID of the item within the cart, increasing in the order the items have been added.
+     * @param item  The priced item.
+     * @param view  The item as it is shown in the cart.
+     * @param cents The price of the item in cents, or {@code null} if it cannot be held as long cents.
+     */
+    private record Line(long id, OrderItemEntity item, CartItem view, Long cents) {
+
+        boolean exact() {
+            return cents != null;
+        }
+
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.bse.backend.assignment.coffeestore.order.internal.cart;
+
+import com.bse.backend.assignment.coffeestore.common.cache.ExpiringLruCache;
+import com.bse.backend.assignment.coffeestore.order.internal.config.OrderConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+
+/**
+ * The draft carts by ID. Carts are read with {@link #getAndRefresh(Object)}, so a cart expires once it has not been
+ * used for the configured idle time; when the store is full, the least recently used cart is dropped.
+ */
+@Component
+public class DraftCartStore extends ExpiringLruCache<String, DraftCart> {
+
+    public DraftCartStore(OrderConfigurationProperties properties) {
+        super("draft-carts", properties.getCarts().getMaxSize(), properties.getCarts().getIdleTtl(),
+                Clock.systemUTC());
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.bse.backend.assignment.coffeestore.order.internal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties("coffee-store.order")
+@Data
+public class OrderConfigurationProperties {
+
+    private Page page = new Page();
+    private Batch batch = new Batch();
+    private SnapshotBackfill snapshotBackfill = new SnapshotBackfill();
+    private QuoteCache quoteCache = new QuoteCache();
+    private Carts carts = new Carts();
+    private Idempotency idempotency = new Idempotency();
+    private Summary summary = new Summary();
+    private EventLog eventLog = new EventLog();
+    private Outbox outbox = new Outbox();
+
+    @Data
+    public static class Page {
+        private int defaultSize = 20;
+        private int maxSize = 100;
+    }
+
+    @Data
+    public static class Batch {
+        private int maxSize = 1000;
+    }
+
+    @Data
+    public static class SnapshotBackfill {
+        private boolean enabled = true;
+        private int chunkSize = 500;
+    }
+
+    @Data
+    public static class QuoteCache {
+        private int maxSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class Carts {
+        private int maxSize = 10_000;
+        private Duration idleTtl = Duration.ofMinutes(30);
+        private int maxItems = 100;
+    }
+
+    @Data
+    public static class Idempotency {
+        private Duration ttl = Duration.ofHours(24);
+        private int cacheMaxSize = 10_000;
+        private Duration purgeInterval = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Summary {
+        private boolean maintained = false;
+        private int generation = 1;
+    }
+
+    @Data
+    public static class EventLog {
+        private boolean enabled = false;
+        private String directory = "./database/order-events";
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        private Duration rollInterval = Duration.ofHours(1);
+        private DataSize retentionSize = DataSize.ofGigabytes(1);
+        private Duration retentionTime = Duration.ofDays(7);
+        private Duration retentionCheckInterval = Duration.ofMinutes(1);
+        private int maxReadSize = 1000;
+    }
+
+    @Data
+    public static class Outbox {
+        private boolean enabled = false;
+        private int batchSize = 100;
+        private Duration linger = Duration.ofMillis(200);
+        private Duration pollInterval = Duration.ofMillis(100);
+        private Duration leaseTime = Duration.ofSeconds(30);
+        private Duration initialBackoff = Duration.ofSeconds(1);
+        private Duration maxBackoff = Duration.ofMinutes(5);
+        private String sinkUrl;
+        private Duration sinkTimeout = Duration.ofSeconds(5);
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.bse.backend.assignment.coffeestore.order.internal.discount;
+
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemEntity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The figures the discount rules look at, with prices held as long cents.
+ *
+ * @param totalCents    The cart total in cents.
+ * @param priceScale    The scale of the cart total as it was given, so results keep the scale they had before.
+ * @param itemCount     The number of items in the cart.
+ * @param minItemCents  The price of the cheapest item in cents; the first one wins on ties.
+ * @param minItemPrice  The price of the cheapest item as it was given, or {@code null} for an empty cart.
+ */
+public record CartSummary(long totalCents, int priceScale, int itemCount, long minItemCents, BigDecimal minItemPrice) {
+
+    private static final int CENTS_SCALE = 2;
+    private static final int MAX_CENTS_PRECISION = 18;
+
+    /**
+     * Summarize an order in a single pass over its items.
+     *
+     * @param order The order to summarize.
+     * @return The summary, or empty if a price is missing or cannot be held exactly as long cents.
+     */
+    public static Optional<CartSummary> of(OrderEntity order) {
+        if (order == null || order.getPrice() == null) return Optional.empty();
+
+        Long totalCents = toCents(order.getPrice());
+        if (totalCents == null) return Optional.empty();
+
+        List<OrderItemEntity> items = order.getOrderItems();
+        int itemCount = items == null ? 0 : items.size();
+        long minItemCents = 0;
+        BigDecimal minItemPrice = null;
+        for (int i = 0; i < itemCount; i++) {
+            BigDecimal price = items.get(i).getPrice();
+            Long cents = price == null ? null : toCents(price);
+            if (cents == null) return Optional.empty();
+
+            if (minItemPrice == null || cents < minItemCents) {
+                minItemCents = cents;
+                minItemPrice = price;
+            }
+        }
+
+        return Optional.of(new CartSummary(totalCents, order.getPrice().scale(), itemCount, minItemCents, minItemPrice));
+    }
+
+    /**
+     * Convert an amount to cents.
+     *
+     * @param amount The amount to convert.
+     * @return The amount in cents, or {@code null} if it has fractions of a cent or does not fit a long.
+     */
+    public static Long toCents(BigDecimal amount) {
+        try {
+            BigDecimal cents = amount.setScale(CENTS_SCALE, RoundingMode.UNNECESSARY);
+            if (cents.precision() > MAX_CENTS_PRECISION) return null;
+
+            return cents.unscaledValue().longValue();
+        } catch (ArithmeticException ex) {
+            return null;
+        }
+    }
+
+}
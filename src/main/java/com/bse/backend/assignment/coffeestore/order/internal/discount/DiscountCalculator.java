@@ -2,32 +2,66 @@ package com.bse.backend.assignment.coffeestore.order.internal.discount;
 
 import com.bse.backend.assignment.coffeestore.order.internal.discount.rule.DiscountRule;
 import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Supplier;
 
+/**
+ * Picks the discount that gives the lowest cart amount. The rules are compiled once into a {@link DiscountPlan}
+ * evaluated on long cents; orders whose prices cannot be held exactly as long cents, or whose rules cannot be
+ * compiled, are calculated rule by rule on {@link BigDecimal}.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class DiscountCalculator {
 
     private final List<DiscountRule> discountRules;
+    private final String[] ruleNames;
+    private final DiscountPlan plan;
+
+    public DiscountCalculator(List<DiscountRule> discountRules) {
+        this.discountRules = discountRules;
+        this.ruleNames = discountRules.stream()
+                .map(rule -> rule.getClass().getName())
+                .toArray(String[]::new);
+        this.plan = DiscountPlan.compile(discountRules).orElse(null);
+    }
 
     public BigDecimal calculateDiscount(OrderEntity order) {
+        return calculateDiscount(CartSummary.of(order).orElse(null), () -> order);
+    }
+
+    /**
+     * Calculate the discount from figures that are already summarized, e.g. kept up to date while a cart is edited.
+     *
+     * @param cart  The summary of the cart, or {@code null} if it cannot be held as long cents.
+     * @param order Supplies the cart as an order, only called when the discount cannot be calculated on long cents.
+     * @return The discount.
+     */
+    public BigDecimal calculateDiscount(CartSummary cart, Supplier<OrderEntity> order) {
+        if (plan != null && cart != null) {
+            BigDecimal discount = plan.evaluate(cart);
+            if (discount != null) return discount;
+        }
+
+        return calculateDiscountByRules(order.get());
+    }
+
+    private BigDecimal calculateDiscountByRules(OrderEntity order) {
         BigDecimal effectiveDiscount = BigDecimal.ZERO;
         String effectiveRuleName = null;
         BigDecimal lowestCartAmount = order.getPrice();
 
-        for (DiscountRule rule : discountRules) {
-            BigDecimal discount = rule.apply(order);
+        for (int i = 0; i < discountRules.size(); i++) {
+            BigDecimal discount = discountRules.get(i).apply(order);
             BigDecimal discountedPrice = order.getPrice().subtract(discount);
 
             if (discountedPrice.compareTo(lowestCartAmount) < 0) {
                 effectiveDiscount = discount;
-                effectiveRuleName = rule.getClass().getName();
+                effectiveRuleName = ruleNames[i];
                 lowestCartAmount = discountedPrice;
             }
         }
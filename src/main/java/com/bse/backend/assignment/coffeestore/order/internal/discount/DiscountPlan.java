@@ -0,0 +1,104 @@
+package com.bse.backend.assignment.coffeestore.order.internal.discount;
+
+import com.bse.backend.assignment.coffeestore.order.internal.discount.rule.CompiledDiscountRule;
+import com.bse.backend.assignment.coffeestore.order.internal.discount.rule.DiscountRule;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The configured discount rules compiled into arrays, with every rule's discount scaled to one common scale
+ * so the best discount is found by comparing longs.
+ */
+@Slf4j
+final class DiscountPlan {
+
+    private final CompiledDiscountRule[] rules;
+    private final String[] ruleNames;
+    private final long[] scaleFactors;
+
+    private DiscountPlan(CompiledDiscountRule[] rules, String[] ruleNames, long[] scaleFactors) {
+        this.rules = rules;
+        this.ruleNames = ruleNames;
+        this.scaleFactors = scaleFactors;
+    }
+
+    /**
+     * Compile the rules into a plan.
+     *
+     * @param discountRules The rules in evaluation order.
+     * @return The plan, or empty if any of the rules cannot be compiled.
+     */
+    static Optional<DiscountPlan> compile(List<DiscountRule> discountRules) {
+        int size = discountRules.size();
+        CompiledDiscountRule[] rules = new CompiledDiscountRule[size];
+        String[] ruleNames = new String[size];
+        int scale = 0;
+
+        for (int i = 0; i < size; i++) {
+            DiscountRule rule = discountRules.get(i);
+            Optional<CompiledDiscountRule> compiled = rule.compile();
+            if (compiled.isEmpty()) {
+                log.info("Discount rule {} cannot be compiled, discounts are calculated rule by rule",
+                        rule.getClass().getName());
+                return Optional.empty();
+            }
+
+            rules[i] = compiled.get();
+            ruleNames[i] = rule.getClass().getName();
+            scale = Math.max(scale, rules[i].scale());
+        }
+
+        long[] scaleFactors = new long[size];
+        try {
+            for (int i = 0; i < size; i++) {
+                scaleFactors[i] = BigDecimal.ONE.movePointRight(scale - rules[i].scale()).longValueExact();
+            }
+        } catch (ArithmeticException ex) {
+            log.info("Discount rule scales are too far apart, discounts are calculated rule by rule");
+            return Optional.empty();
+        }
+
+        return Optional.of(new DiscountPlan(rules, ruleNames, scaleFactors));
+    }
+
+    /**
+     * Find the largest discount for a cart; the first rule wins on ties.
+     *
+     * @param cart The cart to calculate the discount for.
+     * @return The discount, or {@code null} if the calculation overflows a long.
+     */
+    BigDecimal evaluate(CartSummary cart) {
+        int effectiveRule = -1;
+        long effectiveDiscount = 0;
+        long effectiveScaledDiscount = 0;
+
+        try {
+            for (int i = 0; i < rules.length; i++) {
+                long discount = rules[i].discount(cart);
+                if (discount == 0) continue;
+
+                long scaledDiscount = Math.multiplyExact(discount, scaleFactors[i]);
+                if (scaledDiscount > effectiveScaledDiscount) {
+                    effectiveRule = i;
+                    effectiveDiscount = discount;
+                    effectiveScaledDiscount = scaledDiscount;
+                }
+            }
+        } catch (ArithmeticException ex) {
+            return null;
+        }
+
+        if (effectiveRule < 0) {
+            log.debug("Effective discount: 0 (rule: null)");
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal discount = rules[effectiveRule].toBigDecimal(cart, effectiveDiscount);
+        log.debug("Effective discount: {} (rule: {})", discount, ruleNames[effectiveRule]);
+        return discount;
+    }
+
+}
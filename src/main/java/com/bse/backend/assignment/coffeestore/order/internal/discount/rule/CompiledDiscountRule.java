@@ -0,0 +1,37 @@
+package com.bse.backend.assignment.coffeestore.order.internal.discount.rule;
+
+import com.bse.backend.assignment.coffeestore.order.internal.discount.CartSummary;
+
+import java.math.BigDecimal;
+
+/**
+ * A discount rule prepared for evaluation on long cents. Discounts are returned as unscaled longs at
+ * {@link #scale()}, so rules can be compared without creating a {@link BigDecimal} for every candidate.
+ */
+public interface CompiledDiscountRule {
+
+    /**
+     * @return The scale of the unscaled discounts this rule returns.
+     */
+    int scale();
+
+    /**
+     * Calculate the discount for a cart.
+     *
+     * @param cart The cart to calculate the discount for.
+     * @return The unscaled discount at {@link #scale()}, or 0 if the rule does not apply.
+     * @throws ArithmeticException if the discount does not fit a long.
+     */
+    long discount(CartSummary cart);
+
+    /**
+     * Turn a discount returned by {@link #discount(CartSummary)} into the amount the original rule returns,
+     * including its scale.
+     *
+     * @param cart     The cart the discount was calculated for.
+     * @param discount The unscaled discount.
+     * @return The discount amount.
+     */
+    BigDecimal toBigDecimal(CartSummary cart, long discount);
+
+}
@@ -3,9 +3,20 @@ package com.bse.backend.assignment.coffeestore.order.internal.discount.rule;
 import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
 
 import java.math.BigDecimal;
+import java.util.Optional;
 
 public interface DiscountRule {
 
     BigDecimal apply(OrderEntity order);
 
+    /**
+     * Prepare this rule for evaluation on long cents. The compiled rule must return exactly what
+     * {@link #apply(OrderEntity)} returns for every order it is given.
+     *
+     * @return The compiled rule, or empty if the rule can only be evaluated with {@link #apply(OrderEntity)}.
+     */
+    default Optional<CompiledDiscountRule> compile() {
+        return Optional.empty();
+    }
+
 }
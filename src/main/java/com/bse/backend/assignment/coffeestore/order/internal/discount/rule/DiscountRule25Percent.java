@@ -1,17 +1,22 @@
 package com.bse.backend.assignment.coffeestore.order.internal.discount.rule;
 
+import com.bse.backend.assignment.coffeestore.order.internal.discount.CartSummary;
 import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
 
 @Component
 @Slf4j
 @SuppressWarnings("unused")
 public class DiscountRule25Percent implements DiscountRule {
 
+    private static final int CENTS_SCALE = 2;
+
     @Value("${coffee-store.discount.rule-percent.threshold}")
     private BigDecimal threshold;
 
@@ -31,4 +36,47 @@ public class DiscountRule25Percent implements DiscountRule {
         return discount;
     }
 
+    @Override
+    public Optional<CompiledDiscountRule> compile() {
+        if (discountPercent.scale() < 0 || discountPercent.unscaledValue().bitLength() >= Long.SIZE) {
+            return Optional.empty();
+        }
+
+        try {
+            // A whole number of cents is above the threshold exactly when it is above the threshold's floor
+            long thresholdCents = threshold.movePointRight(CENTS_SCALE)
+                    .setScale(0, RoundingMode.FLOOR)
+                    .longValueExact();
+
+            return Optional.of(new Compiled(thresholdCents, discountPercent.unscaledValue().longValue(),
+                    discountPercent.scale()));
+        } catch (ArithmeticException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private record Compiled(long thresholdCents, long percentUnscaled, int percentScale)
+            implements CompiledDiscountRule {
+
+        @Override
+        public int scale() {
+            return CENTS_SCALE + percentScale;
+        }
+
+        @Override
+        public long discount(CartSummary cart) {
+            if (cart.totalCents() <= thresholdCents) return 0;
+
+            return Math.multiplyExact(cart.totalCents(), percentUnscaled);
+        }
+
+        @Override
+        public BigDecimal toBigDecimal(CartSummary cart, long discount) {
+            // BigDecimal.multiply adds the scales of its operands
+            return BigDecimal.valueOf(discount, scale())
+                    .setScale(cart.priceScale() + percentScale, RoundingMode.UNNECESSARY);
+        }
+
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.bse.backend.assignment.coffeestore.order.internal.discount.rule;
 
+import com.bse.backend.assignment.coffeestore.order.internal.discount.CartSummary;
 import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
 import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemEntity;
 import lombok.extern.slf4j.Slf4j;
@@ -7,7 +8,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +16,8 @@ import java.util.Optional;
 @SuppressWarnings("unused")
 public class DiscountRuleFreeItem implements DiscountRule {
 
+    private static final int CENTS_SCALE = 2;
+
     @Value("${coffee-store.discount.rule-free-item.min-items}")
     private int minItems;
 
@@ -24,17 +26,44 @@ public class DiscountRuleFreeItem implements DiscountRule {
         if (order == null || order.getOrderItems() == null) return BigDecimal.ZERO;
 
         List<OrderItemEntity> orderItems = order.getOrderItems();
-        if (orderItems.size() < minItems) return BigDecimal.ZERO;
+        if (orderItems.size() < minItems || orderItems.isEmpty()) return BigDecimal.ZERO;
 
-        Optional<OrderItemEntity> minPriceItem = orderItems.stream()
-                .min(Comparator.comparing(OrderItemEntity::getPrice));
-        if (minPriceItem.isEmpty()) return BigDecimal.ZERO;
+        OrderItemEntity minPriceItem = orderItems.get(0);
+        for (OrderItemEntity orderItem : orderItems) {
+            if (orderItem.getPrice().compareTo(minPriceItem.getPrice()) < 0) minPriceItem = orderItem;
+        }
 
         // The discount is equal to the price of the item with the lowest price
-        BigDecimal discount = minPriceItem.get().getPrice();
+        BigDecimal discount = minPriceItem.getPrice();
 
-        log.debug("Calculated free item discount amount: {} (free item: {})", discount, minPriceItem.get());
+        log.debug("Calculated free item discount amount: {} (free item: {})", discount, minPriceItem);
         return discount;
     }
 
+    @Override
+    public Optional<CompiledDiscountRule> compile() {
+        return Optional.of(new Compiled(minItems));
+    }
+
+    private record Compiled(int minItems) implements CompiledDiscountRule {
+
+        @Override
+        public int scale() {
+            return CENTS_SCALE;
+        }
+
+        @Override
+        public long discount(CartSummary cart) {
+            if (cart.itemCount() < minItems || cart.itemCount() == 0) return 0;
+
+            return cart.minItemCents();
+        }
+
+        @Override
+        public BigDecimal toBigDecimal(CartSummary cart, long discount) {
+            return cart.minItemPrice();
+        }
+
+    }
+
 }
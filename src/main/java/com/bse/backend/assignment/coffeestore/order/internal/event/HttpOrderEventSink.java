@@ -0,0 +1,59 @@
+package com.bse.backend.assignment.coffeestore.order.internal.event;
+
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderEvent;
+import com.bse.backend.assignment.coffeestore.order.internal.config.OrderConfigurationProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+/**
+ * Posts each batch of order events as one JSON array to the configured sink URL; any 2xx response accepts it.
+ */
+@Component
+public class HttpOrderEventSink implements OrderEventSink {
+
+    private final OrderConfigurationProperties.Outbox properties;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    public HttpOrderEventSink(OrderConfigurationProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties.getOutbox();
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(this.properties.getSinkTimeout())
+                .build();
+    }
+
+    @Override
+    public void deliver(List<OrderEvent> events) throws IOException {
+        String sinkUrl = properties.getSinkUrl();
+        if (sinkUrl == null || sinkUrl.isBlank()) throw new IOException("No order event sink URL is configured");
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(sinkUrl))
+                .timeout(properties.getSinkTimeout())
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(events)))
+                .build();
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while delivering order events");
+        }
+
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Order event sink responded with status " + response.statusCode());
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.bse.backend.assignment.coffeestore.order.internal.event;
+
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
+import com.bse.backend.assignment.coffeestore.common.collection.PackedLongs;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderEvent;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderEventItem;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderEventType;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The binary format of order events. An event starts with a format version and a type code, followed by the
+ * fields of its type in fixed-width big-endian encoding; amounts are a scale and an unscaled value, and the topping
+ * IDs of an item are packed with {@link PackedLongs}. A created order with three items takes about 100 bytes.
+ */
+public final class OrderEventCodec {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte ORDER_CREATED = 1;
+    private static final byte ORDER_UPDATED = 2;
+    private static final byte ORDER_DELETED = 3;
+    private static final byte USER_ORDERS_DELETED = 4;
+    private static final byte ORDERS_DELETED_CREATED_BETWEEN = 5;
+
+    private static final byte NULL_SCALE = Byte.MIN_VALUE;
+    private static final long NULL_SECONDS = Long.MIN_VALUE;
+
+    private OrderEventCodec() {
+    }
+
+    public static byte[] created(OrderEntity order) {
+        return encodeOrder(ORDER_CREATED, order);
+    }
+
+    public static byte[] updated(OrderEntity order) {
+        return encodeOrder(ORDER_UPDATED, order);
+    }
+
+    public static byte[] deleted(String username, long orderId) {
+        return encode(ORDER_DELETED, out -> {
+            out.writeLong(orderId);
+            writeString(out, username);
+        });
+    }
+
+    public static byte[] userOrdersDeleted(String username, long deletedOrders) {
+        return encode(USER_ORDERS_DELETED, out -> {
+            writeString(out, username);
+            out.writeLong(deletedOrders);
+        });
+    }
+
+    public static byte[] deletedCreatedBetween(Instant from, Instant to, long deletedOrders) {
+        return encode(ORDERS_DELETED_CREATED_BETWEEN, out -> {
+            writeInstant(out, from);
+            writeInstant(out, to);
+            out.writeLong(deletedOrders);
+        });
+    }
+
+    /**
+     * @param sequence   The sequence number of the event in the log.
+     * @param occurredAt When the event has been appended, in milliseconds since the epoch.
+     * @param payload    The encoded event; it is read from its position on.
+     * @throws IllegalArgumentException if the event has been written in an unknown format.
+     */
+    public static OrderEvent decode(long sequence, long occurredAt, ByteBuffer payload) {
+        byte version = payload.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unknown order event format " + version + " at " + sequence);
+        }
+
+        OrderEvent.OrderEventBuilder event = OrderEvent.builder()
+                .sequence(sequence)
+                .occurredAt(Instant.ofEpochMilli(occurredAt));
+        byte type = payload.get();
+        switch (type) {
+            case ORDER_CREATED, ORDER_UPDATED -> event
+                    .type(type == ORDER_CREATED ? OrderEventType.ORDER_CREATED : OrderEventType.ORDER_UPDATED)
+                    .orderId(payload.getLong())
+                    .version(payload.getLong())
+                    .username(readString(payload))
+                    .createdAt(readInstant(payload))
+                    .price(readDecimal(payload))
+                    .discount(readDecimal(payload))
+                    .items(readItems(payload));
+            case ORDER_DELETED -> event
+                    .type(OrderEventType.ORDER_DELETED)
+                    .orderId(payload.getLong())
+                    .username(readString(payload));
+            case USER_ORDERS_DELETED -> event
+                    .type(OrderEventType.USER_ORDERS_DELETED)
+                    .username(readString(payload))
+                    .deletedOrders(payload.getLong());
+            case ORDERS_DELETED_CREATED_BETWEEN -> event
+                    .type(OrderEventType.ORDERS_DELETED_CREATED_BETWEEN)
+                    .from(readInstant(payload))
+                    .to(readInstant(payload))
+                    .deletedOrders(payload.getLong());
+            default -> throw new IllegalArgumentException("Unknown order event type " + type + " at " + sequence);
+        }
+
+        return event.build();
+    }
+
+    private static byte[] encodeOrder(byte type, OrderEntity order) {
+        return encode(type, out -> {
+            out.writeLong(order.getId());
+            out.writeLong(order.getVersion() == null ? 0L : order.getVersion());
+            writeString(out, order.getUsername());
+            writeInstant(out, order.getCreatedAt());
+            writeDecimal(out, order.getPrice());
+            writeDecimal(out, order.getDiscount());
+
+            List<OrderItemEntity> items = order.getOrderItems() == null ? List.of() : order.getOrderItems();
+            out.writeInt(items.size());
+            for (OrderItemEntity item : items) {
+                out.writeLong(item.getDrinkId());
+                byte[] toppingIds = PackedLongs.pack(item.getToppingIds() == null ? LongList.of() : item.getToppingIds());
+                out.writeShort(toppingIds.length);
+                out.write(toppingIds);
+            }
+        });
+    }
+
+    private static byte[] encode(byte type, Fields fields) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(type);
+            fields.write(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) throw new IllegalArgumentException("String of " + bytes.length + " bytes");
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer payload) {
+        byte[] bytes = new byte[Short.toUnsignedInt(payload.getShort())];
+        payload.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeLong(value == null ? NULL_SECONDS : value.getEpochSecond());
+        out.writeInt(value == null ? 0 : value.getNano());
+    }
+
+    private static Instant readInstant(ByteBuffer payload) {
+        long seconds = payload.getLong();
+        int nanos = payload.getInt();
+
+        return seconds == NULL_SECONDS ? null : Instant.ofEpochSecond(seconds, nanos);
+    }
+
+    /**
+     * @throws ArithmeticException if the amount has more than 18 digits or an unusual scale.
+     */
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL_SCALE);
+            return;
+        }
+
+        if (value.scale() <= NULL_SCALE || value.scale() > Byte.MAX_VALUE) {
+            throw new ArithmeticException("Scale " + value.scale() + " of amount " + value);
+        }
+        out.writeByte(value.scale());
+        out.writeLong(value.unscaledValue().longValueExact());
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer payload) {
+        byte scale = payload.get();
+
+        return scale == NULL_SCALE ? null : new BigDecimal(BigInteger.valueOf(payload.getLong()), scale);
+    }
+
+    private static List<OrderEventItem> readItems(ByteBuffer payload) {
+        int count = payload.getInt();
+        List<OrderEventItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long drinkId = payload.getLong();
+            byte[] toppingIds = new byte[Short.toUnsignedInt(payload.getShort())];
+            payload.get(toppingIds);
+            items.add(OrderEventItem.builder()
+                    .drinkId(drinkId)
+                    .toppingIds(PackedLongs.unpack(toppingIds).boxed())
+                    .build());
+        }
+
+        return items;
+    }
+
+    @FunctionalInterface
+    private interface Fields {
+
+        void write(DataOutputStream out) throws IOException;
+
+    }
+
+}
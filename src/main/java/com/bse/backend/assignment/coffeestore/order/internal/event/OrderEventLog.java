@@ -0,0 +1,155 @@
+package com.bse.backend.assignment.coffeestore.order.internal.event;
+
+import com.bse.backend.assignment.coffeestore.common.eventlog.SegmentedLog;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderEvent;
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderEventPage;
+import com.bse.backend.assignment.coffeestore.order.internal.config.OrderConfigurationProperties;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The feed of committed order changes for downstream systems. Every change is encoded when it is made and appended
+ * to a memory-mapped {@link SegmentedLog} once its transaction has committed, so rolled back changes never show up
+ * and appending costs no database work. Readers pull the events from any sequence number on.
+ * <p>
+ * Events are appended in commit order, except that two transactions committing at the same moment may append in
+ * either order; the events of one order carry its version for consumers to tell which change is the latest. An
+ * event that cannot be appended after its transaction has committed is logged and lost.
+ */
+@Component
+@Log4j2
+public class OrderEventLog {
+
+    private final OrderConfigurationProperties.EventLog properties;
+    private final SegmentedLog segmentedLog;
+
+    public OrderEventLog(OrderConfigurationProperties properties) {
+        this.properties = properties.getEventLog();
+        this.segmentedLog = this.properties.isEnabled()
+                ? SegmentedLog.open(Path.of(this.properties.getDirectory()),
+                        (int) this.properties.getSegmentSize().toBytes(), this.properties.getRollInterval(),
+                        Clock.systemUTC())
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return segmentedLog != null;
+    }
+
+    public void created(OrderEntity order) {
+        if (isEnabled()) append(OrderEventCodec.created(order));
+    }
+
+    public void createdAll(List<OrderEntity> orders) {
+        if (isEnabled()) orders.forEach(this::created);
+    }
+
+    /**
+     * Record the new state of an order; must be called after the changes have been flushed, so that the event
+     * carries the new version.
+     */
+    public void updated(OrderEntity order) {
+        if (isEnabled()) append(OrderEventCodec.updated(order));
+    }
+
+    public void deleted(String username, long orderId) {
+        if (isEnabled()) append(OrderEventCodec.deleted(username, orderId));
+    }
+
+    public void userOrdersDeleted(String username, long deletedOrders) {
+        if (isEnabled()) append(OrderEventCodec.userOrdersDeleted(username, deletedOrders));
+    }
+
+    public void deletedCreatedBetween(Instant from, Instant to, long deletedOrders) {
+        if (isEnabled()) append(OrderEventCodec.deletedCreatedBetween(from, to, deletedOrders));
+    }
+
+    /**
+     * Read the events from the given sequence number on. If older events have been deleted already, the page starts
+     * at the first retained one; its sequence number tells the reader that events have been missed.
+     *
+     * @param from  The sequence number of the first event to read, or {@code null} for the first retained one.
+     * @param limit The maximum number of events; capped by the configured maximum read size.
+     */
+    public OrderEventPage read(Long from, Integer limit) {
+        if (!isEnabled()) {
+            return OrderEventPage.builder()
+                    .events(List.of())
+                    .build();
+        }
+
+        int maxEvents = Math.min(limit == null ? properties.getMaxReadSize() : limit, properties.getMaxReadSize());
+        long firstSequence = segmentedLog.firstSequence();
+        List<OrderEvent> events = new ArrayList<>(Math.min(maxEvents, 64));
+        long nextSequence = segmentedLog.read(from == null ? firstSequence : from, maxEvents,
+                (sequence, timestamp, payload) -> events.add(OrderEventCodec.decode(sequence, timestamp, payload)));
+
+        return OrderEventPage.builder()
+                .events(events)
+                .firstSequence(firstSequence)
+                .nextSequence(nextSequence)
+                .build();
+    }
+
+    /**
+     * @return The sequence number the next event gets, for readers that start with the changes to come.
+     */
+    public long nextSequence() {
+        return isEnabled() ? segmentedLog.nextSequence() : 0L;
+    }
+
+    /**
+     * Delete the rolled segments beyond the retention size and time.
+     */
+    @Scheduled(
+            fixedDelayString = "#{@orderConfigurationProperties.eventLog.retentionCheckInterval.toMillis()}",
+            initialDelayString = "#{@orderConfigurationProperties.eventLog.retentionCheckInterval.toMillis()}"
+    )
+    public void deleteExpired() {
+        if (!isEnabled()) return;
+
+        int deleted = segmentedLog.deleteExpired(properties.getRetentionSize().toBytes(), properties.getRetentionTime());
+        if (deleted > 0) log.info("Deleted {} order event log segments", deleted);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (isEnabled()) segmentedLog.close();
+    }
+
+    private void append(byte[] event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            appendCommitted(event);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                appendCommitted(event);
+            }
+        });
+    }
+
+    private void appendCommitted(byte[] event) {
+        try {
+            long sequence = segmentedLog.append(ByteBuffer.wrap(event));
+            log.trace("Appended order event {} of {} bytes", sequence, event.length);
+        } catch (RuntimeException ex) {
+            log.error("Could not append a committed order event to the log", ex);
+        }
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.bse.backend.assignment.coffeestore.order.internal.event;
+
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The downstream system the {@link OrderOutboxRelay} delivers order events to.
+ */
+public interface OrderEventSink {
+
+    /**
+     * Deliver a batch of events in order; a batch that fails is delivered again in full, so the sink must accept
+     * events it has already received.
+     *
+     * @throws IOException if the sink has not accepted the batch.
+     */
+    void deliver(List<OrderEvent> events) throws IOException;
+
+}
@@ -0,0 +1,81 @@
+package com.bse.backend.assignment.coffeestore.order.internal.event;
+
+import com.bse.backend.assignment.coffeestore.order.internal.config.OrderConfigurationProperties;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderOutboxEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderOutboxRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes order events into the outbox table in the transaction that changes the orders, so an event is stored if
+ * and only if its change is committed, and the order transaction does no I/O besides the inserts, which are sent in
+ * JDBC batches. The {@link OrderOutboxRelay} delivers the events later.
+ */
+@Component
+public class OrderOutbox {
+
+    private final OrderOutboxRepository repository;
+    private final OrderConfigurationProperties properties;
+    private final Clock clock;
+
+    public OrderOutbox(OrderOutboxRepository repository, OrderConfigurationProperties properties) {
+        this.repository = repository;
+        this.properties = properties;
+        this.clock = Clock.systemUTC();
+    }
+
+    public boolean isEnabled() {
+        return properties.getOutbox().isEnabled();
+    }
+
+    /**
+     * Record new orders; must be called in the transaction that inserts them, once the inserts have been flushed,
+     * so that the events carry the creation time.
+     */
+    public void created(List<OrderEntity> orders) {
+        if (!isEnabled()) return;
+
+        List<byte[]> events = new ArrayList<>(orders.size());
+        for (OrderEntity order : orders) events.add(OrderEventCodec.created(order));
+        enqueue(events);
+    }
+
+    /**
+     * Record the new state of an order; must be called in the transaction that changes it, after the changes have
+     * been flushed, so that the event carries the new version.
+     */
+    public void updated(OrderEntity order) {
+        if (isEnabled()) enqueue(List.of(OrderEventCodec.updated(order)));
+    }
+
+    public void deleted(String username, long orderId) {
+        if (isEnabled()) enqueue(List.of(OrderEventCodec.deleted(username, orderId)));
+    }
+
+    public void userOrdersDeleted(String username, long deletedOrders) {
+        if (isEnabled()) enqueue(List.of(OrderEventCodec.userOrdersDeleted(username, deletedOrders)));
+    }
+
+    public void deletedCreatedBetween(Instant from, Instant to, long deletedOrders) {
+        if (isEnabled()) enqueue(List.of(OrderEventCodec.deletedCreatedBetween(from, to, deletedOrders)));
+    }
+
+    private void enqueue(List<byte[]> events) {
+        Instant now = clock.instant();
+        List<OrderOutboxEntity> entities = new ArrayList<>(events.size());
+        for (byte[] event : events) {
+            entities.add(OrderOutboxEntity.builder()
+                    .createdAt(now)
+                    .availableAt(now)
+                    .payload(event)
+                    .build());
+        }
+        repository.saveAll(entities);
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.bse.backend.assignment.coffeestore.order.internal.event;
+
+import com.bse.backend.assignment.coffeestore.order.api.model.OrderEvent;
+import com.bse.backend.assignment.coffeestore.order.internal.config.OrderConfigurationProperties;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderOutboxBacklog;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderOutboxEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderOutboxRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers the events of the {@link OrderOutbox} to the {@link OrderEventSink} in batches. A run waits until a full
+ * batch is available or the oldest event has lingered long enough, claims the oldest events, delivers them outside
+ * any transaction and deletes them once the sink has accepted them. A failed batch is released to be retried after
+ * an exponential backoff; delivery is at least once, so the sink may receive a batch again.
+ * <p>
+ * Claims are leased, so several instances can relay from the same table, and events are delivered in outbox order
+ * unless a batch is being retried.
+ */
+@Component
+@Log4j2
+public class OrderOutboxRelay implements MeterBinder {
+
+    private final OrderOutboxRepository repository;
+    private final OrderEventSink sink;
+    private final OrderConfigurationProperties properties;
+    private final TransactionTemplate writeTransaction;
+    private final Clock clock;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile long pendingEvents;
+    private volatile Instant oldestPendingEvent;
+    private volatile Timer deliveryLag;
+
+    public OrderOutboxRelay(OrderOutboxRepository repository, OrderEventSink sink,
+                            OrderConfigurationProperties properties, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.sink = sink;
+        this.properties = properties;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = Clock.systemUTC();
+    }
+
+    /**
+     * Deliver batches for as long as full ones are available.
+     */
+    @Scheduled(
+            fixedDelayString = "#{@orderConfigurationProperties.outbox.pollInterval.toMillis()}",
+            initialDelayString = "#{@orderConfigurationProperties.outbox.pollInterval.toMillis()}"
+    )
+    public void relay() {
+        if (!properties.getOutbox().isEnabled()) return;
+
+        while (relayBatch()) {
+            log.trace("Relaying the next batch of order events");
+        }
+    }
+
+    /**
+     * @return Whether a full batch has been delivered, so that more events may be waiting.
+     */
+    private boolean relayBatch() {
+        OrderConfigurationProperties.Outbox outbox = properties.getOutbox();
+        Instant now = clock.instant();
+        OrderOutboxBacklog backlog = repository.findBacklog(now);
+        pendingEvents = backlog.events();
+        oldestPendingEvent = backlog.oldest();
+        if (backlog.events() == 0) return false;
+        if (backlog.events() < outbox.getBatchSize() && now.isBefore(backlog.oldest().plus(outbox.getLinger()))) {
+            return false;
+        }
+
+        String token = UUID.randomUUID().toString();
+        List<OrderOutboxEntity> claimed = writeTransaction.execute(status -> {
+            int count = repository.claim(token, now, now.plus(outbox.getLeaseTime()), outbox.getBatchSize());
+            return count == 0 ? List.of() : repository.findAllByClaimTokenOrderById(token);
+        });
+        if (claimed == null || claimed.isEmpty()) return false;
+
+        List<OrderEvent> events = new ArrayList<>(claimed.size());
+        int attempts = 0;
+        for (OrderOutboxEntity entity : claimed) {
+            events.add(OrderEventCodec.decode(entity.getId(), entity.getCreatedAt().toEpochMilli(),
+                    ByteBuffer.wrap(entity.getPayload())));
+            attempts = Math.max(attempts, entity.getAttempts());
+        }
+
+        try {
+            sink.deliver(events);
+        } catch (IOException | RuntimeException ex) {
+            Instant retryAt = clock.instant().plus(backoff(attempts));
+            writeTransaction.executeWithoutResult(status -> repository.release(token, retryAt));
+            failures.increment();
+            log.warn("Could not deliver {} order events, retrying at {}: {}", events.size(), retryAt, ex.toString());
+            return false;
+        }
+
+        writeTransaction.executeWithoutResult(status -> repository.deleteClaimed(token));
+        delivered.add(events.size());
+        Instant deliveredAt = clock.instant();
+        Timer timer = deliveryLag;
+        if (timer != null) {
+            for (OrderOutboxEntity entity : claimed) timer.record(Duration.between(entity.getCreatedAt(), deliveredAt));
+        }
+        log.debug("Delivered {} order events", events.size());
+
+        return claimed.size() >= outbox.getBatchSize();
+    }
+
+    /**
+     * The initial backoff, doubled for every failed attempt before, up to the maximum backoff.
+     */
+    private Duration backoff(int attempts) {
+        OrderConfigurationProperties.Outbox outbox = properties.getOutbox();
+        Duration backoff = outbox.getInitialBackoff().multipliedBy(1L << Math.min(attempts, 20));
+
+        return backoff.compareTo(outbox.getMaxBackoff()) > 0 ? outbox.getMaxBackoff() : backoff;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("coffee-store.outbox.delivered", delivered, LongAdder::doubleValue)
+                .description("Order events accepted by the sink")
+                .register(registry);
+        FunctionCounter.builder("coffee-store.outbox.failures", failures, LongAdder::doubleValue)
+                .description("Batches of order events the sink has not accepted")
+                .register(registry);
+        Gauge.builder("coffee-store.outbox.pending", this, relay -> relay.pendingEvents)
+                .description("Order events available for delivery at the last relay run")
+                .register(registry);
+        TimeGauge.builder("coffee-store.outbox.lag", this, TimeUnit.MILLISECONDS, OrderOutboxRelay::lagMillis)
+                .description("Age of the oldest order event available for delivery at the last relay run")
+                .register(registry);
+        deliveryLag = Timer.builder("coffee-store.outbox.delivery.lag")
+                .description("Time from the commit of an order change to the delivery of its event")
+                .register(registry);
+    }
+
+    private double lagMillis() {
+        Instant oldest = oldestPendingEvent;
+
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, clock.instant()).toMillis());
+    }
+
+}
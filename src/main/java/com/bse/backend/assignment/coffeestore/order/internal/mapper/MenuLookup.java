@@ -0,0 +1,53 @@
+package com.bse.backend.assignment.coffeestore.order.internal.mapper;
+
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
+import com.bse.backend.assignment.coffeestore.common.collection.LongObjectMap;
+import com.bse.backend.assignment.coffeestore.drink.api.exception.DrinkNotFoundException;
+import com.bse.backend.assignment.coffeestore.drink.api.model.Drink;
+import com.bse.backend.assignment.coffeestore.topping.api.model.Topping;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An in-memory id to model lookup of the drinks and toppings referenced by one or more orders.
+ * It is resolved once per mapping call, so order items can be mapped without querying the catalog per item.
+ */
+public class MenuLookup {
+
+    public static final String DRINK_NOT_FOUND = "Drink not found";
+
+    private final LongObjectMap<Drink> drinks;
+    private final LongObjectMap<Topping> toppings;
+
+    public MenuLookup(LongObjectMap<Drink> drinks, LongObjectMap<Topping> toppings) {
+        this.drinks = drinks;
+        this.toppings = toppings;
+    }
+
+    public Drink getDrink(Long id) throws DrinkNotFoundException {
+        Drink drink = id == null ? null : drinks.get(id);
+        if (drink == null) throw new DrinkNotFoundException(DRINK_NOT_FOUND);
+
+        return drink;
+    }
+
+    /**
+     * Resolves toppings the same way a repository "find all by id" does: unknown ids are skipped,
+     * duplicates are collapsed and the result is ordered by id.
+     */
+    public List<Topping> getToppings(LongList ids) {
+        if (ids == null || ids.isEmpty()) return List.of();
+
+        List<Topping> result = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Topping topping = toppings.get(ids.get(i));
+            if (topping != null && !result.contains(topping)) result.add(topping);
+        }
+        result.sort(Comparator.comparingLong(Topping::getId));
+
+        return result;
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.bse.backend.assignment.coffeestore.order.internal.mapper;
+
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
+import com.bse.backend.assignment.coffeestore.common.collection.LongObjectMap;
+import com.bse.backend.assignment.coffeestore.common.collection.LongSet;
+import com.bse.backend.assignment.coffeestore.drink.api.DrinkService;
+import com.bse.backend.assignment.coffeestore.drink.api.model.Drink;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemEntity;
+import com.bse.backend.assignment.coffeestore.topping.api.ToppingService;
+import com.bse.backend.assignment.coffeestore.topping.api.model.Topping;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds a {@link MenuLookup} for a batch of orders: all drink and topping ids are gathered first
+ * and each set is fetched in a single round trip. The ids are gathered into primitive sets, unboxed as soon
+ * as they are read from the input. Stored order items are only looked up when they have no
+ * {@link com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemSnapshot}.
+ */
+@Component
+@Log4j2
+@RequiredArgsConstructor
+public class MenuLookupLoader {
+
+    private final DrinkService drinkService;
+    private final ToppingService toppingService;
+
+    public MenuLookup forEntity(OrderEntity order) {
+        return forEntities(order == null ? List.of() : List.of(order));
+    }
+
+    public MenuLookup forEntities(Collection<OrderEntity> orders) {
+        LongSet drinkIds = new LongSet();
+        LongSet toppingIds = new LongSet();
+
+        for (OrderEntity order : orders) {
+            if (order.getOrderItems() == null) continue;
+
+            for (OrderItemEntity item : order.getOrderItems()) {
+                // Snapshotted items are rendered without the catalog
+                if (item.getSnapshot() != null) continue;
+
+                collectIds(item.getDrinkId(), item.getToppingIds(), drinkIds, toppingIds);
+            }
+        }
+
+        return load(drinkIds, toppingIds);
+    }
+
+    public MenuLookup forItems(Collection<OrderItemEntity> items) {
+        LongSet drinkIds = new LongSet();
+        LongSet toppingIds = new LongSet();
+
+        for (OrderItemEntity item : items) {
+            collectIds(item.getDrinkId(), item.getToppingIds(), drinkIds, toppingIds);
+        }
+
+        return load(drinkIds, toppingIds);
+    }
+
+    public MenuLookup forInput(InputOrder order) {
+        return forInputs(order == null ? List.of() : List.of(order));
+    }
+
+    public MenuLookup forInputs(Collection<InputOrder> orders) {
+        LongSet drinkIds = new LongSet();
+        LongSet toppingIds = new LongSet();
+
+        for (InputOrder order : orders) {
+            if (order == null || order.getItems() == null) continue;
+
+            for (InputOrderItem item : order.getItems()) {
+                collectIds(item.getDrinkId(), item.getToppingIds(), drinkIds, toppingIds);
+            }
+        }
+
+        return load(drinkIds, toppingIds);
+    }
+
+    private void collectIds(Long drinkId, List<Long> itemToppingIds, LongSet drinkIds, LongSet toppingIds) {
+        if (drinkId != null) drinkIds.add(drinkId);
+        if (itemToppingIds == null) return;
+
+        for (Long toppingId : itemToppingIds) {
+            if (toppingId != null) toppingIds.add(toppingId);
+        }
+    }
+
+    private void collectIds(Long drinkId, LongList itemToppingIds, LongSet drinkIds, LongSet toppingIds) {
+        if (drinkId != null) drinkIds.add(drinkId);
+        if (itemToppingIds != null) toppingIds.addAll(itemToppingIds);
+    }
+
+    private MenuLookup load(LongSet drinkIds, LongSet toppingIds) {
+        LongObjectMap<Drink> drinks = new LongObjectMap<>(drinkIds.size());
+        if (!drinkIds.isEmpty()) {
+            for (Drink drink : drinkService.getAllDrinksById(drinkIds.toList())) {
+                drinks.put(drink.getId(), drink);
+            }
+        }
+
+        LongObjectMap<Topping> toppings = new LongObjectMap<>(toppingIds.size());
+        if (!toppingIds.isEmpty()) {
+            for (Topping topping : toppingService.getAllToppingsById(toppingIds.toList())) {
+                toppings.put(topping.getId(), topping);
+            }
+        }
+        log.debug("Resolved {} drinks and {} toppings for order mapping", drinks.size(), toppings.size());
+
+        return new MenuLookup(drinks, toppings);
+    }
+
+}
@@ -1,6 +1,6 @@
 package com.bse.backend.assignment.coffeestore.order.internal.mapper;
 
-import com.bse.backend.assignment.coffeestore.drink.api.DrinkService;
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
 import com.bse.backend.assignment.coffeestore.drink.api.exception.DrinkNotFoundException;
 import com.bse.backend.assignment.coffeestore.drink.api.model.Drink;
 import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
@@ -8,53 +8,105 @@ import com.bse.backend.assignment.coffeestore.order.api.model.OrderDrink;
 import com.bse.backend.assignment.coffeestore.order.api.model.OrderItem;
 import com.bse.backend.assignment.coffeestore.order.api.model.OrderTopping;
 import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemEntity;
-import com.bse.backend.assignment.coffeestore.topping.api.ToppingService;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemSnapshot;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.ToppingSnapshot;
 import com.bse.backend.assignment.coffeestore.topping.api.model.Topping;
 import org.mapstruct.AfterMapping;
 import org.mapstruct.Builder;
+import org.mapstruct.CollectionMappingStrategy;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
-import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
-@Mapper(builder = @Builder(disableBuilder = true))
+@Mapper(
+        builder = @Builder(disableBuilder = true),
+        collectionMappingStrategy = CollectionMappingStrategy.TARGET_IMMUTABLE
+)
 public abstract class OrderItemMapper {
 
-    @Autowired
-    private DrinkService drinkService;
+    @Mapping(target = "drink", source = ".")
+    @Mapping(target = "toppings", source = ".")
+    public abstract OrderItem toDto(OrderItemEntity entity, @Context MenuLookup menu) throws DrinkNotFoundException;
 
-    @Autowired
-    private ToppingService toppingService;
+    public abstract List<OrderItem> toDtoList(List<OrderItemEntity> entityList, @Context MenuLookup menu)
+            throws DrinkNotFoundException;
 
-    @Mapping(target = "drink", source = "drinkId")
-    @Mapping(target = "toppings", source = "toppingIds")
-    public abstract OrderItem toDto(OrderItemEntity entity) throws DrinkNotFoundException;
+    @Mapping(target = "snapshot", ignore = true)
+    public abstract OrderItemEntity toEntity(InputOrderItem dto, @Context MenuLookup menu)
+            throws DrinkNotFoundException;
 
-    public abstract List<OrderItem> toDtoList(List<OrderItemEntity> entityList) throws DrinkNotFoundException;
+    /**
+     * Updates a stored item in place, keeping its row. The topping ids are replaced as a whole,
+     * as they are packed into a single column.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "order", ignore = true)
+    @Mapping(target = "price", ignore = true)
+    @Mapping(target = "snapshot", ignore = true)
+    public abstract void updateEntity(InputOrderItem dto, @MappingTarget OrderItemEntity entity,
+                                      @Context MenuLookup menu) throws DrinkNotFoundException;
 
-    public abstract OrderItemEntity toEntity(InputOrderItem dto) throws DrinkNotFoundException;
-
-    public abstract List<OrderItemEntity> toEntityList(List<InputOrderItem> dtoList) throws DrinkNotFoundException;
+    public abstract List<OrderItemEntity> toEntityList(List<InputOrderItem> dtoList, @Context MenuLookup menu)
+            throws DrinkNotFoundException;
 
     @AfterMapping
-    protected void attachPrice(@MappingTarget OrderItemEntity entity) throws DrinkNotFoundException {
+    protected void attachPrice(@MappingTarget OrderItemEntity entity, @Context MenuLookup menu)
+            throws DrinkNotFoundException {
         if (entity == null) return;
 
-        BigDecimal drinkPrice = drinkService.getDrinkById(entity.getDrinkId()).getPrice();
-        BigDecimal toppingsPrice = toppingService.getAllToppingsById(entity.getToppingIds())
-                .stream()
-                .map(Topping::getPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        OrderItemSnapshot snapshot = toSnapshot(entity, menu);
+        BigDecimal price = snapshot.getDrinkPrice();
+        for (ToppingSnapshot topping : snapshot.getToppings()) {
+            price = price.add(topping.price());
+        }
+
+        entity.setPrice(price);
+        entity.setSnapshot(snapshot);
+    }
 
-        entity.setPrice(drinkPrice.add(toppingsPrice));
+    protected LongList toToppingIds(List<Long> toppingIds) {
+        return LongList.copyOf(toppingIds);
     }
 
-    protected OrderDrink toOrderDrink(Long id) throws DrinkNotFoundException {
-        Drink drink = drinkService.getDrinkById(id);
+    /**
+     * Captures the current catalog details of the item's drink and toppings.
+     */
+    public OrderItemSnapshot toSnapshot(OrderItemEntity entity, @Context MenuLookup menu)
+            throws DrinkNotFoundException {
+        Drink drink = menu.getDrink(entity.getDrinkId());
+        List<Topping> toppings = menu.getToppings(entity.getToppingIds());
+        List<ToppingSnapshot> toppingSnapshots = new ArrayList<>(toppings.size());
+        for (Topping topping : toppings) {
+            toppingSnapshots.add(new ToppingSnapshot(topping.getId(), topping.getName(), topping.getPrice()));
+        }
+
+        return OrderItemSnapshot.builder()
+                .drinkName(drink.getName())
+                .drinkPrice(drink.getPrice())
+                .toppings(toppingSnapshots)
+                .build();
+    }
 
+    /**
+     * Snapshotted items are mapped in memory; only items without a snapshot are resolved against the catalog.
+     */
+    protected OrderDrink toOrderDrink(OrderItemEntity entity, @Context MenuLookup menu)
+            throws DrinkNotFoundException {
+        OrderItemSnapshot snapshot = entity.getSnapshot();
+        if (snapshot != null) {
+            return OrderDrink.builder()
+                    .id(entity.getDrinkId())
+                    .name(snapshot.getDrinkName())
+                    .price(snapshot.getDrinkPrice())
+                    .build();
+        }
+
+        Drink drink = menu.getDrink(entity.getDrinkId());
         return OrderDrink.builder()
                 .id(drink.getId())
                 .name(drink.getName())
@@ -62,8 +114,22 @@ public abstract class OrderItemMapper {
                 .build();
     }
 
-    protected List<OrderTopping> toOrderToppingList(List<Long> ids) {
-        return toppingService.getAllToppingsById(ids)
+    protected List<OrderTopping> toOrderToppingList(OrderItemEntity entity, @Context MenuLookup menu) {
+        OrderItemSnapshot snapshot = entity.getSnapshot();
+        if (snapshot != null) {
+            if (snapshot.getToppings() == null) return List.of();
+
+            return snapshot.getToppings()
+                    .stream()
+                    .map(topping -> OrderTopping.builder()
+                            .id(topping.id())
+                            .name(topping.name())
+                            .price(topping.price())
+                            .build())
+                    .toList();
+        }
+
+        return menu.getToppings(entity.getToppingIds())
                 .stream()
                 .map(topping -> OrderTopping.builder()
                         .id(topping.getId())
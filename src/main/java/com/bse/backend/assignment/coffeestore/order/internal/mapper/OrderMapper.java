@@ -8,6 +8,7 @@ import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderIt
 import com.bse.backend.assignment.coffeestore.security.api.model.UserResponse;
 import org.mapstruct.AfterMapping;
 import org.mapstruct.Builder;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -19,13 +20,15 @@ import java.util.List;
 public interface OrderMapper {
 
     @Mapping(target = "items", source = "orderItems")
-    Order toDto(OrderEntity entity) throws DrinkNotFoundException;
+    Order toDto(OrderEntity entity, @Context MenuLookup menu) throws DrinkNotFoundException;
 
-    List<Order> toDtoList(List<OrderEntity> entityList) throws DrinkNotFoundException;
+    List<Order> toDtoList(List<OrderEntity> entityList, @Context MenuLookup menu) throws DrinkNotFoundException;
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "username", source = "user.email")
     @Mapping(target = "orderItems", source = "dto.items")
-    OrderEntity toEntity(UserResponse user, InputOrder dto) throws DrinkNotFoundException;
+    OrderEntity toEntity(UserResponse user, InputOrder dto, @Context MenuLookup menu) throws DrinkNotFoundException;
 
     @AfterMapping
     default void afterMappingToEntity(@MappingTarget OrderEntity orderEntity) {
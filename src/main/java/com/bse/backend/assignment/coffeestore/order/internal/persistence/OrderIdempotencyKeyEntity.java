@@ -0,0 +1,70 @@
+package com.bse.backend.assignment.coffeestore.order.internal.persistence;
+
+import com.bse.backend.assignment.coffeestore.common.persistence.PooledSequenceGenerator;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.time.Instant;
+
+/**
+ * An idempotency key a user has created an order with, along with the response the order has been created with.
+ * It is inserted in the same transaction as the order, so the unique key decides which of two concurrent requests
+ * with the same key creates the order.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@Entity
+@EqualsAndHashCode(exclude = "id")
+@NoArgsConstructor
+@Table(name = "order_idempotency_keys", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_order_idempotency_keys_username_key",
+                columnNames = { "username", "idempotencyKey" })
+}, indexes = {
+        @Index(name = "idx_order_idempotency_keys_expires_at", columnList = "expiresAt")
+})
+@ToString(exclude = "response")
+public class OrderIdempotencyKeyEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_idempotency_keys_seq")
+    @GenericGenerator(name = "order_idempotency_keys_seq", type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "order_idempotency_keys_seq"))
+    private Long id;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, so a key reused for a different order is told apart from a retry
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    private Long orderId;
+
+    // The created order as JSON, so a retry is answered without mapping or pricing the order again
+    @Lob
+    private String response;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+}
@@ -0,0 +1,20 @@
+package com.bse.backend.assignment.coffeestore.order.internal.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKeyEntity, Long> {
+
+    Optional<OrderIdempotencyKeyEntity> findByUsernameAndIdempotencyKey(String username, String idempotencyKey);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from OrderIdempotencyKeyEntity k where k.expiresAt <= :now")
+    int deleteExpired(Instant now);
+
+}
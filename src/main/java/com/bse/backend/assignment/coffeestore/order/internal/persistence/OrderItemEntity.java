@@ -1,6 +1,13 @@
 package com.bse.backend.assignment.coffeestore.order.internal.persistence;
 
-import jakarta.persistence.ElementCollection;
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
+import com.bse.backend.assignment.coffeestore.common.collection.PackedLongs;
+import com.bse.backend.assignment.coffeestore.common.persistence.PackedLongListConverter;
+import com.bse.backend.assignment.coffeestore.common.persistence.PooledSequenceGenerator;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -13,9 +20,13 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.type.descriptor.java.Immutability;
 
 import java.math.BigDecimal;
-import java.util.List;
 
 @AllArgsConstructor
 @Builder
@@ -28,7 +39,9 @@ import java.util.List;
 public class OrderItemEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @GenericGenerator(name = "order_items_seq", type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "order_items_seq"))
     private Long id;
 
     @ManyToOne
@@ -36,9 +49,15 @@ public class OrderItemEntity {
 
     private Long drinkId;
 
-    @ElementCollection
-    private List<Long> toppingIds;
+    // Packed into one column; the value is immutable and replaced as a whole
+    @Convert(converter = PackedLongListConverter.class)
+    @Column(length = InputOrderItem.MAX_TOPPINGS * PackedLongs.MAX_BYTES_PER_VALUE)
+    @Mutability(Immutability.class)
+    private LongList toppingIds;
 
     private BigDecimal price;
 
+    @Embedded
+    private OrderItemSnapshot snapshot;
+
 }
@@ -0,0 +1,36 @@
+package com.bse.backend.assignment.coffeestore.order.internal.persistence;
+
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * The drink and toppings of an order item as they were in the catalog when the item was priced.
+ * Orders are rendered from the snapshot, so reading the order history does not depend on the current catalog.
+ * <p>
+ * Items created before snapshots were introduced have no snapshot ({@code null} embeddable) until they are
+ * backfilled.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@Embeddable
+@NoArgsConstructor
+public class OrderItemSnapshot {
+
+    private String drinkName;
+    private BigDecimal drinkPrice;
+
+    @Column(name = "topping_snapshots", length = InputOrderItem.MAX_TOPPINGS * ToppingSnapshot.MAX_JSON_LENGTH + 2)
+    @Convert(converter = ToppingSnapshotListConverter.class)
+    private List<ToppingSnapshot> toppings;
+
+}
@@ -0,0 +1,12 @@
+package com.bse.backend.assignment.coffeestore.order.internal.persistence;
+
+import java.time.Instant;
+
+/**
+ * The order events in the outbox that have not been delivered yet.
+ *
+ * @param events The number of events.
+ * @param oldest When the oldest of them has been created, or {@code null} if there are none.
+ */
+public record OrderOutboxBacklog(long events, Instant oldest) {
+}
@@ -0,0 +1,65 @@
+package com.bse.backend.assignment.coffeestore.order.internal.persistence;
+
+import com.bse.backend.assignment.coffeestore.common.persistence.PooledSequenceGenerator;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.time.Instant;
+
+/**
+ * An order event waiting to be delivered downstream. It is inserted in the transaction that changes the order, so
+ * it exists exactly when the change has been committed, and deleted once it has been delivered.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@Entity
+@EqualsAndHashCode(exclude = "id")
+@NoArgsConstructor
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_available_at", columnList = "availableAt, id"),
+        @Index(name = "idx_order_outbox_claim_token", columnList = "claimToken")
+})
+@ToString(exclude = "payload")
+public class OrderOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @GenericGenerator(name = "order_outbox_seq", type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "order_outbox_seq"))
+    private Long id;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // The event can be claimed from then on; a claim or a failed delivery moves it into the future
+    @Column(nullable = false)
+    private Instant availableAt;
+
+    // Set by the relay run that has claimed the event last
+    @Column(length = 36)
+    private String claimToken;
+
+    private int attempts;
+
+    // The event in the binary format of the order event log; its size grows with the items of the order
+    @Column(nullable = false)
+    @Lob
+    private byte[] payload;
+
+}
@@ -0,0 +1,53 @@
+package com.bse.backend.assignment.coffeestore.order.internal.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Events are claimed by a conditional update that stamps a batch of available events with the token of a relay run
+ * and makes them unavailable for the lease time, the H2 equivalent of {@code SELECT ... FOR UPDATE SKIP LOCKED}.
+ * A relay that dies with a claim leaves the events to be claimed again once the lease has expired.
+ */
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEntity, Long> {
+
+    @Query("select new com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderOutboxBacklog("
+            + "count(e), min(e.createdAt)) from OrderOutboxEntity e where e.availableAt <= :now")
+    OrderOutboxBacklog findBacklog(Instant now);
+
+    @Query("select new com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderOutboxBacklog("
+            + "count(e), min(e.createdAt)) from OrderOutboxEntity e")
+    OrderOutboxBacklog findPending();
+
+    /**
+     * Claim the oldest available events for a relay run, until the lease ends.
+     *
+     * @return The number of claimed events.
+     */
+    @Modifying
+    @Query(value = "UPDATE order_outbox SET claim_token = :token, available_at = :leaseEnd "
+            + "WHERE id IN (SELECT id FROM order_outbox WHERE available_at <= :now "
+            + "ORDER BY available_at, id FETCH FIRST :batchSize ROWS ONLY) "
+            + "AND available_at <= :now", nativeQuery = true)
+    int claim(String token, Instant now, Instant leaseEnd, int batchSize);
+
+    List<OrderOutboxEntity> findAllByClaimTokenOrderById(String token);
+
+    @Modifying
+    @Query("delete from OrderOutboxEntity e where e.claimToken = :token")
+    int deleteClaimed(String token);
+
+    /**
+     * Give claimed events back after a failed delivery, to be retried at the given time.
+     */
+    @Modifying
+    @Query("update OrderOutboxEntity e set e.claimToken = null, e.attempts = e.attempts + 1, "
+            + "e.availableAt = :retryAt where e.claimToken = :token")
+    int release(String token, Instant retryAt);
+
+}
@@ -1,16 +1,116 @@
 package com.bse.backend.assignment.coffeestore.order.internal.persistence;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Orders are read through fetch plans that load the whole order graph (orders and items) in a fixed number
+ * of statements instead of initializing the lazy collections one by one. The topping ids are packed into a
+ * column of the items, so they come with the items.
+ * <p>
+ * Paged reads select the order ids first, so that the limit applies to orders rather than to joined rows.
+ */
 @Repository
 public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
 
-    List<OrderEntity> findAllByUsername(String username);
+    @Query("select o from OrderEntity o left join fetch o.orderItems where o.username = :username order by o.id")
+    List<OrderEntity> findAllWithItemsByUsername(String username);
+
+    @Query("select o.id from OrderEntity o where o.username = :username and o.id > :afterId order by o.id")
+    List<Long> findIdsByUsernameAfterId(String username, Long afterId, Pageable pageable);
+
+    @Query("select o from OrderEntity o left join fetch o.orderItems where o.id in :ids order by o.id")
+    List<OrderEntity> findAllWithItemsByIdIn(Collection<Long> ids);
+
+    @Query("select o from OrderEntity o left join fetch o.orderItems where o.username = :username and o.id = :id")
+    Optional<OrderEntity> findWithItemsByUsernameAndId(String username, Long id);
+
+    @Query("select i.id from OrderItemEntity i where i.id > :afterId and i.snapshot.drinkName is null order by i.id")
+    List<Long> findUnsnapshottedItemIdsAfterId(Long afterId, Pageable pageable);
+
+    @Query("select i from OrderItemEntity i where i.id in :ids order by i.id")
+    List<OrderItemEntity> findAllItemsByIdIn(Collection<Long> ids);
+
     Optional<OrderEntity> findByUsernameAndId(String username, Long id);
-    void deleteByUsernameAndId(String username, Long id);
+
+    @Query("select new com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderTotals("
+            + "count(o), coalesce(sum(o.price), 0), coalesce(sum(o.discount), 0), max(o.createdAt)) "
+            + "from OrderEntity o where o.username = :username")
+    OrderTotals sumByUsername(String username);
+
+    @Query("select new com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderTotals("
+            + "count(o), coalesce(sum(o.price), 0), coalesce(sum(o.discount), 0), max(o.createdAt)) "
+            + "from OrderEntity o where o.username = :username and o.id = :id")
+    OrderTotals sumByUsernameAndId(String username, Long id);
+
+    @Query("select distinct o.username from OrderEntity o where o.createdAt >= :from and o.createdAt < :to")
+    List<String> findUsernamesCreatedBetween(Instant from, Instant to);
+
+    @Query("select new com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderTotals("
+            + "count(o), coalesce(sum(o.price), 0), coalesce(sum(o.discount), 0), max(o.createdAt)) "
+            + "from OrderEntity o where o.username = :username and o.createdAt >= :from and o.createdAt < :to")
+    OrderTotals sumByUsernameCreatedBetween(String username, Instant from, Instant to);
+
+    // Bulk deletes run child to parent
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from OrderItemEntity i where i.order.id in "
+            + "(select o.id from OrderEntity o where o.username = :username and o.id = :id)")
+    int deleteItemsByUsernameAndId(String username, Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from OrderEntity o where o.username = :username and o.id = :id")
+    int deleteOrdersByUsernameAndId(String username, Long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from OrderItemEntity i where i.order.id in "
+            + "(select o.id from OrderEntity o where o.username = :username)")
+    int deleteItemsByUsername(String username);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from OrderEntity o where o.username = :username")
+    int deleteOrdersByUsername(String username);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from OrderItemEntity i where i.order.id in "
+            + "(select o.id from OrderEntity o where o.createdAt >= :from and o.createdAt < :to)")
+    int deleteItemsCreatedBetween(Instant from, Instant to);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from OrderEntity o where o.createdAt >= :from and o.createdAt < :to")
+    int deleteOrdersCreatedBetween(Instant from, Instant to);
+
+    /**
+     * List fetch plan: all orders of the user, in id order, in one statement.
+     */
+    default List<OrderEntity> findAllGraphsByUsername(String username) {
+        return findAllWithItemsByUsername(username);
+    }
+
+    /**
+     * Page fetch plan: up to {@code limit} orders of the user with an id greater than {@code afterId},
+     * in id order, in two statements.
+     */
+    default List<OrderEntity> findGraphPageByUsername(String username, Long afterId, int limit) {
+        List<Long> ids = findIdsByUsernameAfterId(username, afterId, Pageable.ofSize(limit));
+        if (ids.isEmpty()) return List.of();
+
+        return findAllWithItemsByIdIn(ids);
+    }
+
+    /**
+     * Detail fetch plan: a single order of the user in one statement.
+     */
+    default Optional<OrderEntity> findGraphByUsernameAndId(String username, Long id) {
+        return findWithItemsByUsernameAndId(username, id);
+    }
 
 }
@@ -0,0 +1,45 @@
+package com.bse.backend.assignment.coffeestore.order.internal.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * The order totals of one user, kept up to date by the transactions that create, reprice and delete the user's
+ * orders. It is only written through the atomic updates of {@link OrderSummaryRepository}, so concurrent orders
+ * of the same user queue on the row instead of overwriting each other's totals.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "order_summaries")
+public class OrderSummaryEntity {
+
+    @Id
+    private String username;
+
+    // The summary generation the row has been seeded in; rows of another one are seeded again
+    private Integer generation;
+
+    @Column(nullable = false)
+    private long ordersPlaced;
+
+    @Column(nullable = false)
+    private BigDecimal totalSpent;
+
+    @Column(nullable = false)
+    private BigDecimal totalSaved;
+
+    private Instant lastOrderAt;
+
+}
@@ -0,0 +1,71 @@
+package com.bse.backend.assignment.coffeestore.order.internal.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The summary rows are changed by relative updates only, so each one is a single statement that locks the row
+ * until the order transaction ends. Every statement is limited to rows of the given summary generation; an update
+ * returning 0 means the user has no current summary row yet. Rows are seeded by the {@code OrderSummaryStore}.
+ * Updates that add amounts are native, as Hibernate casts decimal parameters in arithmetic to a type H2 cannot
+ * parse.
+ */
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummaryEntity, String> {
+
+    @Query("select new com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderTotals("
+            + "s.ordersPlaced, s.totalSpent, s.totalSaved, s.lastOrderAt) "
+            + "from OrderSummaryEntity s where s.username = :username and s.generation = :generation")
+    Optional<OrderTotals> findTotalsByUsername(String username, int generation);
+
+    @Modifying
+    @Query(value = "UPDATE order_summaries SET orders_placed = orders_placed + :orders, "
+            + "total_spent = total_spent + :spent, total_saved = total_saved + :saved, "
+            + "last_order_at = CASE WHEN last_order_at IS NULL OR last_order_at < :createdAt "
+            + "THEN :createdAt ELSE last_order_at END "
+            + "WHERE username = :username AND generation = :generation", nativeQuery = true)
+    int addOrders(String username, int generation, long orders, BigDecimal spent, BigDecimal saved,
+                  Instant createdAt);
+
+    @Modifying
+    @Query(value = "UPDATE order_summaries SET total_spent = total_spent + :spent, "
+            + "total_saved = total_saved + :saved WHERE username = :username AND generation = :generation",
+            nativeQuery = true)
+    int addAmounts(String username, int generation, BigDecimal spent, BigDecimal saved);
+
+    /**
+     * Take an order that is about to be deleted out of the totals. The latest order time is looked up again among
+     * the other orders, as the deleted one may have been the latest; that is the only part that reads the orders.
+     */
+    @Modifying
+    @Query(value = "UPDATE order_summaries SET orders_placed = orders_placed - 1, "
+            + "total_spent = total_spent - :spent, total_saved = total_saved - :saved, "
+            + "last_order_at = (SELECT MAX(o.created_at) FROM orders o "
+            + "WHERE o.username = :username AND o.id <> :id) "
+            + "WHERE username = :username AND generation = :generation", nativeQuery = true)
+    int removeOrder(String username, int generation, Long id, BigDecimal spent, BigDecimal saved);
+
+    /**
+     * Take the orders created in the given date range, which are about to be deleted, out of the totals.
+     */
+    @Modifying
+    @Query(value = "UPDATE order_summaries SET orders_placed = orders_placed - :orders, "
+            + "total_spent = total_spent - :spent, total_saved = total_saved - :saved, "
+            + "last_order_at = (SELECT MAX(o.created_at) FROM orders o "
+            + "WHERE o.username = :username AND (o.created_at < :from OR o.created_at >= :to)) "
+            + "WHERE username = :username AND generation = :generation", nativeQuery = true)
+    int removeOrdersCreatedBetween(String username, int generation, Instant from, Instant to, long orders,
+                                   BigDecimal spent, BigDecimal saved);
+
+    @Modifying
+    @Query("update OrderSummaryEntity s set s.ordersPlaced = 0, s.totalSpent = 0, s.totalSaved = 0, "
+            + "s.lastOrderAt = null where s.username = :username and s.generation = :generation")
+    int resetByUsername(String username, int generation);
+
+}
@@ -0,0 +1,15 @@
+package com.bse.backend.assignment.coffeestore.order.internal.persistence;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * The order totals of one user, as aggregated from the orders or read from the user's summary row.
+ *
+ * @param ordersPlaced The number of orders.
+ * @param totalSpent   The sum of the order prices, after discounts.
+ * @param totalSaved   The sum of the order discounts.
+ * @param lastOrderAt  When the latest order was created, or {@code null} if there are no orders.
+ */
+public record OrderTotals(long ordersPlaced, BigDecimal totalSpent, BigDecimal totalSaved, Instant lastOrderAt) {
+}
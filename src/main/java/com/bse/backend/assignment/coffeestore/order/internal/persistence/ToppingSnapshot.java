@@ -0,0 +1,21 @@
+package com.bse.backend.assignment.coffeestore.order.internal.persistence;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * A topping as it was in the catalog when the order item was priced.
+ */
+public record ToppingSnapshot(Long id, String name, BigDecimal price) implements Serializable {
+
+    /**
+     * The longest JSON of a snapshot, with its separator: an id, a name of up to 255 characters that are all
+     * escaped as six characters, and a price of up to 38 digits.
+     */
+    static final int MAX_JSON_LENGTH = 1620;
+
+    @Serial
+    private static final long serialVersionUID = 3418870342612906120L;
+
+}
@@ -0,0 +1,44 @@
+package com.bse.backend.assignment.coffeestore.order.internal.persistence;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.List;
+
+/**
+ * Stores the topping snapshots of an order item as a compact JSON array in a single column,
+ * so they are read together with the item instead of from a separate collection table.
+ */
+@Converter
+public class ToppingSnapshotListConverter implements AttributeConverter<List<ToppingSnapshot>, String> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<ToppingSnapshot>> TYPE = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(List<ToppingSnapshot> toppings) {
+        if (toppings == null) return null;
+
+        try {
+            return OBJECT_MAPPER.writeValueAsString(toppings);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Unable to serialize topping snapshots", ex);
+        }
+    }
+
+    @Override
+    public List<ToppingSnapshot> convertToEntityAttribute(String json) {
+        if (json == null) return null;
+
+        try {
+            return OBJECT_MAPPER.readValue(json, TYPE);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Unable to deserialize topping snapshots", ex);
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.bse.backend.assignment.coffeestore.security.api;
 
+import com.bse.backend.assignment.coffeestore.security.api.model.TokenClaims;
 import org.springframework.security.core.userdetails.UserDetails;
 
 /**
@@ -8,6 +9,15 @@ import org.springframework.security.core.userdetails.UserDetails;
  */
 public interface JwtService {
 
+    /**
+     * Verify the signature of a JWT token and read its claims.
+     *
+     * @param token The JWT token to parse.
+     * @return The claims of the token.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, its signature is invalid or it has expired.
+     */
+    TokenClaims parseToken(String token);
+
     /**
      * Extract the username from a JWT token.
      *
@@ -32,4 +42,13 @@ public interface JwtService {
      * @return `true` if the token is valid for the user details, `false` otherwise.
      */
     boolean isTokenValid(String token, UserDetails userDetails);
-}
\ No newline at end of file
+
+    /**
+     * Check if the claims of an already parsed JWT token are valid for the given UserDetails.
+     *
+     * @param claims The claims returned by {@link #parseToken(String)}.
+     * @param userDetails The user details against which to validate the claims.
+     * @return `true` if the claims are valid for the user details, `false` otherwise.
+     */
+    boolean isTokenValid(TokenClaims claims, UserDetails userDetails);
+}
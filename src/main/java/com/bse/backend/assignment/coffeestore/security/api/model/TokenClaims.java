@@ -0,0 +1,28 @@
+package com.bse.backend.assignment.coffeestore.security.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Represents the claims of a JWT token whose signature has been verified.
+ * A token is parsed once per request and its claims are reused for every check.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class TokenClaims implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 3617453972058617194L;
+
+    private String username;
+    private Instant issuedAt;
+    private Instant expiration;
+}
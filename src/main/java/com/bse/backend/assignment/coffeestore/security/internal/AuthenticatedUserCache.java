@@ -0,0 +1,53 @@
+package com.bse.backend.assignment.coffeestore.security.internal;
+
+import com.bse.backend.assignment.coffeestore.common.cache.ExpiringLruCache;
+import com.bse.backend.assignment.coffeestore.security.api.model.TokenClaims;
+import com.bse.backend.assignment.coffeestore.security.internal.config.JwtConfigurationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Users already authenticated by a verified JWT token, so repeated requests with the same token skip both
+ * signature verification and the user lookup. Tokens are kept as SHA-256 hashes, and an entry never outlives
+ * the expiration of its token.
+ * <p>
+ * Users cannot change their password or role, nor be deleted, yet. Once they can, the tokens of a changed user
+ * must be evicted here, or the user stays authenticated as before until the TTL or the token expires.
+ */
+@Component
+@Slf4j
+public class AuthenticatedUserCache extends ExpiringLruCache<String, UserDetails> {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    public AuthenticatedUserCache(JwtConfigurationProperties properties) {
+        super("authenticated-users", properties.getCache().getMaxSize(), properties.getCache().getTtl(),
+                Clock.systemUTC());
+    }
+
+    public Optional<UserDetails> getByToken(String token) {
+        return get(hash(token));
+    }
+
+    public void putToken(String token, TokenClaims claims, UserDetails userDetails) {
+        put(hash(token), userDetails, claims.getExpiration());
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance(HASH_ALGORITHM).digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available", ex);
+        }
+    }
+
+}
@@ -1,29 +1,49 @@
 package com.bse.backend.assignment.coffeestore.security.internal;
 
 import com.bse.backend.assignment.coffeestore.security.api.JwtService;
+import com.bse.backend.assignment.coffeestore.security.api.model.TokenClaims;
 import com.bse.backend.assignment.coffeestore.security.internal.config.JwtConfigurationProperties;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import lombok.AllArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
 
 @Service
-@AllArgsConstructor
 public class JwtServiceImpl implements JwtService {
 
-    private final JwtConfigurationProperties properties;
+    private final Key signingKey;
+    // Immutable and thread-safe, so one parser serves every request
+    private final JwtParser parser;
+
+    public JwtServiceImpl(JwtConfigurationProperties properties) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(properties.getSigningKey()));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    @Override
+    public TokenClaims parseToken(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+
+        return TokenClaims.builder()
+                .username(claims.getSubject())
+                .issuedAt(toInstant(claims.getIssuedAt()))
+                .expiration(toInstant(claims.getExpiration()))
+                .build();
+    }
 
     @Override
     public String extractUserName(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseToken(token).getUsername();
     }
 
     @Override
@@ -32,37 +52,28 @@ public class JwtServiceImpl implements JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 24))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     @Override
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
-        return userName.equals(userDetails.getUsername()) && !isTokenExpired(token);
-    }
-
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolvers) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolvers.apply(claims);
+        return isTokenValid(parseToken(token), userDetails);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    @Override
+    public boolean isTokenValid(TokenClaims claims, UserDetails userDetails) {
+        return claims.getUsername() != null
+                && claims.getUsername().equals(userDetails.getUsername())
+                && !isTokenExpired(claims);
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(properties.getSigningKey());
-        return Keys.hmacShaKeyFor(keyBytes);
+    private boolean isTokenExpired(TokenClaims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().isBefore(Instant.now());
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration)
-                .before(new Date());
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
     }
 
 }
@@ -1,6 +1,8 @@
 package com.bse.backend.assignment.coffeestore.security.internal.config;
 
 import com.bse.backend.assignment.coffeestore.security.api.JwtService;
+import com.bse.backend.assignment.coffeestore.security.api.model.TokenClaims;
+import com.bse.backend.assignment.coffeestore.security.internal.AuthenticatedUserCache;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -17,6 +19,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -26,6 +29,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String REQUEST_HEADER = "Authorization";
 
     private final JwtService jwtService;
+    private final AuthenticatedUserCache authenticatedUserCache;
     private final UserDetailsService userDetailsService;
     private final HandlerExceptionResolver handlerExceptionResolver;
 
@@ -44,17 +48,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = extractJwtToken(authenticationHeader);
-            final String username = jwtService.extractUserName(jwt);
+            Optional<UserDetails> cachedUser = authenticatedUserCache.getByToken(jwt);
+            if (cachedUser.isPresent()) {
+                if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                    authenticate(request, cachedUser.get());
+                }
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            final TokenClaims claims = jwtService.parseToken(jwt);
+            final String username = claims.getUsername();
 
             UserDetails userDetails = isUserFound(username)
                     ? userDetailsService.loadUserByUsername(username)
                     : null;
 
-            if (userDetails != null && jwtService.isTokenValid(jwt, userDetails)) {
-                var usernamePasswordAuthenticationToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+            if (userDetails != null && jwtService.isTokenValid(claims, userDetails)) {
+                authenticate(request, userDetails);
+                authenticatedUserCache.putToken(jwt, claims, userDetails);
             }
 
             filterChain.doFilter(request, response);
@@ -63,6 +75,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    private void authenticate(HttpServletRequest request, UserDetails userDetails) {
+        var usernamePasswordAuthenticationToken =
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+    }
+
     private boolean isUserFound(String username) {
         return username != null && SecurityContextHolder.getContext().getAuthentication() == null;
     }
@@ -4,10 +4,19 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 @ConfigurationProperties("coffee-store.token")
 @Data
 public class JwtConfigurationProperties {
     private String signingKey;
+    private Cache cache = new Cache();
+
+    @Data
+    public static class Cache {
+        private int maxSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(5);
+    }
 
 }
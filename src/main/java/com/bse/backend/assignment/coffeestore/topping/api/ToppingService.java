@@ -1,10 +1,12 @@
 package com.bse.backend.assignment.coffeestore.topping.api;
 
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
 import com.bse.backend.assignment.coffeestore.topping.api.exception.ToppingNotFoundException;
 import com.bse.backend.assignment.coffeestore.topping.api.model.InputTopping;
 import com.bse.backend.assignment.coffeestore.topping.api.model.Topping;
 
 import java.util.List;
+import java.util.OptionalLong;
 
 /**
  * This interface defines the service methods for managing toppings in the Coffee Store application.
@@ -35,7 +37,16 @@ public interface ToppingService {
      * @param ids A list of unique identifiers for the toppings to be retrieved.
      * @return A list of {@link Topping} objects representing the retrieved toppings.
      */
-    List<Topping> getAllToppingsById(List<Long> ids);
+    List<Topping> getAllToppingsById(LongList ids);
+
+    /**
+     * Returns the version of the toppings served by this service. It changes whenever any topping is created,
+     * updated or deleted, so it can be used to key values derived from the toppings.
+     *
+     * @return The current version, or an empty optional when the current transaction has modified toppings
+     * and no stable version exists.
+     */
+    OptionalLong getVersion();
 
     /**
      * Creates a new topping based on the provided information.
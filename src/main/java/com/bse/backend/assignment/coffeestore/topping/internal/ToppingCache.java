@@ -0,0 +1,32 @@
+package com.bse.backend.assignment.coffeestore.topping.internal;
+
+import com.bse.backend.assignment.coffeestore.common.cache.VersionedSnapshotCache;
+import com.bse.backend.assignment.coffeestore.topping.api.model.Topping;
+import com.bse.backend.assignment.coffeestore.topping.internal.persistence.ToppingRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * In-memory snapshot of all toppings, reloaded whenever a topping is created, updated or deleted.
+ */
+@Component
+public class ToppingCache extends VersionedSnapshotCache<Topping> {
+
+    public ToppingCache(
+            ToppingRepository repository,
+            ToppingMapper mapper,
+            PlatformTransactionManager transactionManager
+    ) {
+        super("toppings", () -> mapper.toDtoList(repository.findAll(Sort.by("id"))), Topping::getId,
+                transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+}
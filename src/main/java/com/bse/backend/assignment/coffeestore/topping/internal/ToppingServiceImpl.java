@@ -1,5 +1,7 @@
 package com.bse.backend.assignment.coffeestore.topping.internal;
 
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
+import com.bse.backend.assignment.coffeestore.common.collection.LongObjectMap;
 import com.bse.backend.assignment.coffeestore.topping.api.ToppingService;
 import com.bse.backend.assignment.coffeestore.topping.api.exception.ToppingNotFoundException;
 import com.bse.backend.assignment.coffeestore.topping.api.model.InputTopping;
@@ -9,9 +11,15 @@ import com.bse.backend.assignment.coffeestore.topping.internal.persistence.Toppi
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 @Log4j2
 @Service
@@ -23,16 +31,29 @@ public class ToppingServiceImpl implements ToppingService {
 
     private final ToppingRepository repository;
     private final ToppingMapper mapper;
+    private final ToppingCache cache;
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Topping> getAllToppings() {
+        Optional<Map<Long, Topping>> snapshot = cache.read();
+        if (snapshot.isPresent()) return new ArrayList<>(snapshot.get().values());
+
         List<ToppingEntity> entities = repository.findAll();
         log.debug("Found {} topping entities", entities.size());
         return mapper.toDtoList(entities);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Topping getToppingById(Long id) throws ToppingNotFoundException {
+        Optional<Map<Long, Topping>> snapshot = cache.read();
+        if (snapshot.isPresent()) {
+            Topping topping = snapshot.get().get(id);
+            if (topping == null) throw new ToppingNotFoundException(TOPPING_NOT_FOUND);
+            return topping;
+        }
+
         return repository.findById(id)
                 .map(entity -> {
                     log.debug("Found {} topping by id {}", entity, id);
@@ -41,17 +62,42 @@ public class ToppingServiceImpl implements ToppingService {
     }
 
     @Override
-    public List<Topping> getAllToppingsById(List<Long> ids) {
-        List<ToppingEntity> entities = repository.findAllById(ids);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Topping> getAllToppingsById(LongList ids) {
+        Optional<LongObjectMap<Topping>> snapshot = cache.readById();
+        if (snapshot.isPresent()) {
+            LongObjectMap<Topping> toppings = snapshot.get();
+            long[] sortedIds = ids.toArray();
+            Arrays.sort(sortedIds);
+
+            List<Topping> result = new ArrayList<>(sortedIds.length);
+            for (int i = 0; i < sortedIds.length; i++) {
+                if (i > 0 && sortedIds[i] == sortedIds[i - 1]) continue;
+
+                Topping topping = toppings.get(sortedIds[i]);
+                if (topping != null) result.add(topping);
+            }
+            return result;
+        }
+
+        // Spring Data binds the ids of the IN query from a collection, so they are only boxed here
+        List<ToppingEntity> entities = repository.findAllById(ids.boxed());
 
         return mapper.toDtoList(entities);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public OptionalLong getVersion() {
+        return cache.readVersion();
+    }
+
     @Override
     public Topping createTopping(InputTopping topping) {
         ToppingEntity entity = mapper.toEntity(topping);
 
         ToppingEntity savedEntity = repository.save(entity);
+        cache.markModified();
         log.debug("New Topping has been successfully created: {}", savedEntity);
 
         return mapper.toDto(savedEntity);
@@ -69,6 +115,7 @@ public class ToppingServiceImpl implements ToppingService {
         updatedEntity.setId(id);
 
         updatedEntity = repository.save(updatedEntity);
+        cache.markModified();
         log.debug("Topping has been successfully updated: {}", updatedEntity);
 
         return mapper.toDto(updatedEntity);
@@ -77,6 +124,7 @@ public class ToppingServiceImpl implements ToppingService {
     @Override
     public void deleteTopping(Long id) {
         repository.deleteById(id);
+        cache.markModified();
         log.debug("Topping with id {} has been deleted", id);
     }
 
@@ -1,5 +1,6 @@
 package com.bse.backend.assignment.coffeestore.topping.internal.persistence;
 
+import com.bse.backend.assignment.coffeestore.common.persistence.PooledSequenceGenerator;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -10,6 +11,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import java.math.BigDecimal;
 
@@ -23,7 +27,9 @@ import java.math.BigDecimal;
 public class ToppingEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "toppings_seq")
+    @GenericGenerator(name = "toppings_seq", type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "toppings_seq"))
     private Long id;
 
     private String name;
@@ -1,27 +1,27 @@
--- initial drinks
-INSERT INTO drinks (name, price)
-SELECT name, price
+-- initial drinks; ids are given, as the id sequences are moved past them on startup
+INSERT INTO drinks (id, name, price)
+SELECT id, name, price
 FROM (
-    SELECT 'Black Coffee' AS name, 4 AS price
+    SELECT 1 AS id, 'Black Coffee' AS name, 4 AS price
     UNION ALL
-    SELECT 'Latte', 5
+    SELECT 2, 'Latte', 5
     UNION ALL
-    SELECT 'Mocha', 6
+    SELECT 3, 'Mocha', 6
     UNION ALL
-    SELECT 'Tea', 3
+    SELECT 4, 'Tea', 3
 ) AS x
 WHERE NOT EXISTS (SELECT * FROM drinks);
 
 -- initial toppings
-INSERT INTO toppings (name, price)
-SELECT name, price
+INSERT INTO toppings (id, name, price)
+SELECT id, name, price
 FROM (
-    SELECT 'Milk' AS name, 2 AS price
+    SELECT 1 AS id, 'Milk' AS name, 2 AS price
     UNION ALL
-    SELECT 'Hazelnut syrup', 3
+    SELECT 2, 'Hazelnut syrup', 3
     UNION ALL
-    SELECT 'Chocolate sauce', 5
+    SELECT 3, 'Chocolate sauce', 5
     UNION ALL
-    SELECT 'Lemon', 2
+    SELECT 4, 'Lemon', 2
 ) AS x
 WHERE NOT EXISTS (SELECT * FROM toppings);
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.bse.backend.assignment.coffeestore;
+
+import org.apache.catalina.connector.Connector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.threads.virtual.enabled=true"
+)
+class VirtualThreadApplicationTests {
+
+	@Autowired
+	private ServletWebServerApplicationContext context;
+
+	@Test
+	@DisplayName("With virtual threads enabled Tomcat should run requests on virtual threads")
+	void tomcatExecutorUsesVirtualThreadsTest() throws Exception {
+		// given
+		Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+		Executor executor = connector.getProtocolHandler().getExecutor();
+
+		// when
+		boolean virtual = CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), executor).get();
+
+		// then
+		assertTrue(virtual);
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.bse.backend.assignment.coffeestore.common.collection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LongCollectionsTest {
+
+    @Test
+    @DisplayName("Long set should hold the same values in the same order as a LinkedHashSet while it grows")
+    void longSetMatchesLinkedHashSetTest() {
+        // given
+        Random random = new Random(20231017L);
+        LongSet set = new LongSet(1);
+        Set<Long> expected = new LinkedHashSet<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            // Narrow range for duplicates, plus the extremes and zero
+            long value = switch (random.nextInt(10)) {
+                case 0 -> Long.MIN_VALUE;
+                case 1 -> Long.MAX_VALUE;
+                case 2 -> 0L;
+                default -> random.nextInt(5_000) - 1_000L;
+            };
+
+            // when
+            boolean added = set.add(value);
+
+            // then
+            assertEquals(expected.add(value), added, () -> "Add differs for " + value);
+        }
+        assertEquals(expected.size(), set.size());
+        assertEquals(LongList.copyOf(expected), set.toList());
+        assertEquals(LongList.copyOf(expected.stream().sorted().toList()), set.toSortedList());
+        for (long value = -1_100; value < 4_100; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+    }
+
+    @Test
+    @DisplayName("Long object map should find, replace and miss the same keys as a LinkedHashMap while it grows")
+    void longObjectMapMatchesLinkedHashMapTest() {
+        // given
+        Random random = new Random(20231017L);
+        LongObjectMap<String> map = new LongObjectMap<>(0);
+        Map<Long, String> expected = new LinkedHashMap<>();
+        List<Long> keys = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextInt(3) == 0 ? random.nextLong() : random.nextInt(2_000);
+            String value = "value" + i;
+            keys.add(key);
+
+            // when
+            String previous = map.put(key, value);
+
+            // then
+            assertEquals(expected.put(key, value), previous, () -> "Put differs for " + key);
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key : keys) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+        assertNull(map.get(-1L));
+    }
+}
@@ -0,0 +1,175 @@
+package com.bse.backend.assignment.coffeestore.common.eventlog;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SegmentedLogTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2023-10-17T10:00:00Z"));
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Segmented log should number the records and read them from any offset across segments")
+    void appendAndReadFromOffsetTest() {
+        try (SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE, Duration.ofHours(1), clock)) {
+            // given
+            for (int i = 0; i < 200; i++) {
+                // when
+                long sequence = log.append(record("record-" + i));
+
+                // then
+                assertEquals(i, sequence);
+            }
+
+            // then
+            assertEquals(200, log.nextSequence());
+            assertEquals(6, segmentFiles());
+            assertEquals(List.of("record-37", "record-38", "record-39"), read(log, 37, 3));
+            assertEquals(200, log.read(150, 1000, (sequence, timestamp, payload) -> { }));
+            assertEquals(List.of(), read(log, 200, 10));
+            List<String> all = read(log, 0, 1000);
+            assertEquals(200, all.size());
+            assertEquals("record-199", all.get(199));
+        }
+    }
+
+    @Test
+    @DisplayName("Segmented log should recover its records on open and ignore a record whose write has not finished")
+    void reopenTest() throws IOException {
+        // given
+        try (SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE, Duration.ofHours(1), clock)) {
+            for (int i = 0; i < 50; i++) log.append(record("record-" + i));
+        }
+        Path last;
+        try (Stream<Path> files = Files.list(directory)) {
+            last = files.filter(path -> path.toString().endsWith(".log")).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        int end = recordsEnd(last);
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            // Sequence number and payload of the next record, but not yet its length
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, 50L), end + Integer.BYTES);
+        }
+
+        // when
+        try (SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE, Duration.ofHours(1), clock)) {
+            // then
+            assertEquals(50, log.nextSequence());
+            assertEquals(List.of("record-48", "record-49"), read(log, 48, 10));
+            assertEquals(50, log.append(record("record-50")));
+            assertEquals(List.of("record-49", "record-50"), read(log, 49, 10));
+            assertThrows(IllegalStateException.class,
+                    () -> SegmentedLog.open(directory, SEGMENT_SIZE, Duration.ofHours(1), clock));
+        }
+    }
+
+    @Test
+    @DisplayName("Segmented log should roll segments by age and delete rolled ones beyond retention size and time")
+    void rollAndRetentionTest() {
+        try (SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE, Duration.ofMinutes(10), clock)) {
+            // given
+            for (int segment = 0; segment < 4; segment++) {
+                for (int i = 0; i < 5; i++) log.append(record("segment-" + segment + "-" + i));
+                clock.advance(Duration.ofMinutes(15));
+            }
+            assertEquals(4, segmentFiles());
+
+            // when
+            int deletedBySize = log.deleteExpired(log.size() - 1, Duration.ofDays(1));
+
+            // then
+            assertEquals(1, deletedBySize);
+            assertEquals(5, log.firstSequence());
+            assertEquals(List.of("segment-1-0"), read(log, 0, 1));
+
+            // when
+            clock.advance(Duration.ofHours(1));
+            int deletedByTime = log.deleteExpired(Long.MAX_VALUE, Duration.ofMinutes(30));
+
+            // then the segment written to is kept
+            assertEquals(2, deletedByTime);
+            assertEquals(15, log.firstSequence());
+            assertEquals(1, segmentFiles());
+            assertEquals(20, log.append(record("after-retention")));
+        }
+    }
+
+    private static ByteBuffer record(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> read(SegmentedLog log, long from, int maxRecords) {
+        List<String> records = new ArrayList<>();
+        log.read(from, maxRecords, (sequence, timestamp, payload) ->
+                records.add(StandardCharsets.UTF_8.decode(payload).toString()));
+
+        return records;
+    }
+
+    private long segmentFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".log")).count();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static int recordsEnd(Path segment) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int position = 0;
+        while (buffer.getInt(position) > 0) position += SegmentedLog.HEADER_SIZE + buffer.getInt(position);
+
+        return position;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -149,6 +150,34 @@ class ModifyDrinkControllerTest {
                 .andExpect(jsonPath("$.price", is(updatedDrink.getPrice()), BigDecimal.class));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Get Drink after update in the same transaction should return updated Drink")
+    void getDrinkAfterUpdateTest() throws Exception {
+        // given
+        long drinkId = 1L;
+        var updatedDrink = InputDrink.builder()
+                .name("Updated Black Coffee")
+                .price(BigDecimal.valueOf(7))
+                .build();
+        mockMvc.perform(get("/api/v1/drinks/" + drinkId)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/v1/drinks/" + drinkId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedDrink)))
+                .andExpect(status().isOk());
+
+        // when
+        var result = mockMvc.perform(get("/api/v1/drinks/" + drinkId)
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is(updatedDrink.getName())))
+                .andExpect(jsonPath("$.price", is(updatedDrink.getPrice()), BigDecimal.class));
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     @DisplayName("Update Drink with Non-Existent ID should return 404 Not Found")
@@ -0,0 +1,205 @@
+package com.bse.backend.assignment.coffeestore.order;
+
+import com.bse.backend.assignment.coffeestore.mock.WithMockCustomUser;
+import com.bse.backend.assignment.coffeestore.order.api.model.Cart;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.internal.cart.DraftCart;
+import com.bse.backend.assignment.coffeestore.order.internal.cart.DraftCartStore;
+import com.bse.backend.assignment.coffeestore.order.internal.discount.DiscountCalculator;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@WithMockCustomUser(username = CartControllerTest.TEST_USERNAME)
+class CartControllerTest {
+
+    static final String TEST_USERNAME = "cartControllerTest";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private DraftCartStore store;
+
+    @Autowired
+    private DiscountCalculator discountCalculator;
+
+    @Test
+    @DisplayName("Add and remove Cart items should reprice the Cart with the best discount after every edit")
+    void editCartTest() throws Exception {
+        // given
+        String cartId = createCart();
+        addItem(cartId, 1L, List.of(1L));
+        addItem(cartId, 4L, List.of());
+
+        // when
+        var freeItemResult = addItem(cartId, 4L, List.of());
+        var percentResult = addItem(cartId, 3L, List.of());
+        var removedResult = mockMvc.perform(delete("/api/v1/carts/" + cartId + "/items/1")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        freeItemResult.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.originalPrice", comparesEqualTo(BigDecimal.valueOf(12)), BigDecimal.class))
+                .andExpect(jsonPath("$.discount", comparesEqualTo(BigDecimal.valueOf(3)), BigDecimal.class))
+                .andExpect(jsonPath("$.price", comparesEqualTo(BigDecimal.valueOf(9)), BigDecimal.class));
+        percentResult.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(4)))
+                .andExpect(jsonPath("$.originalPrice", comparesEqualTo(BigDecimal.valueOf(18)), BigDecimal.class))
+                .andExpect(jsonPath("$.discount", comparesEqualTo(BigDecimal.valueOf(4.5)), BigDecimal.class))
+                .andExpect(jsonPath("$.price", comparesEqualTo(BigDecimal.valueOf(13.5)), BigDecimal.class));
+        removedResult.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.items[0].id", is(2)))
+                .andExpect(jsonPath("$.items[0].drink.name", is("Tea")))
+                .andExpect(jsonPath("$.originalPrice", comparesEqualTo(BigDecimal.valueOf(12)), BigDecimal.class))
+                .andExpect(jsonPath("$.discount", comparesEqualTo(BigDecimal.valueOf(3)), BigDecimal.class))
+                .andExpect(jsonPath("$.price", comparesEqualTo(BigDecimal.valueOf(9)), BigDecimal.class));
+    }
+
+    @Test
+    @DisplayName("Checkout Cart should create an Order at the Cart prices and remove the Cart")
+    void checkoutTest() throws Exception {
+        // given
+        long ordersBefore = repository.count();
+        String cartId = createCart();
+        addItem(cartId, 1L, List.of(1L, 2L, 3L));
+
+        // when
+        var result = mockMvc.perform(post("/api/v1/carts/" + cartId + "/checkout")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        result.andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", notNullValue()))
+                .andExpect(jsonPath("$.username", is(TEST_USERNAME)))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].toppings", hasSize(3)))
+                .andExpect(jsonPath("$.originalPrice", comparesEqualTo(BigDecimal.valueOf(14)), BigDecimal.class))
+                .andExpect(jsonPath("$.discount", comparesEqualTo(BigDecimal.valueOf(3.5)), BigDecimal.class))
+                .andExpect(jsonPath("$.price", comparesEqualTo(BigDecimal.valueOf(10.5)), BigDecimal.class));
+        assertEquals(ordersBefore + 1, repository.count());
+        mockMvc.perform(get("/api/v1/carts/" + cartId)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Checkout empty Cart should return 400 Bad Request")
+    void checkoutEmptyCartTest() throws Exception {
+        // given
+        String cartId = createCart();
+
+        // when
+        var result = mockMvc.perform(post("/api/v1/carts/" + cartId + "/checkout")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is(String.format(DraftCart.EMPTY_CART_TEMPLATE, cartId))));
+    }
+
+    @Test
+    @DisplayName("Add Cart item beyond the maximum Cart size should return 400 Bad Request")
+    void addItemCartTooLargeTest() throws Exception {
+        // given
+        String cartId = createCart();
+        for (int i = 0; i < 5; i++) {
+            addItem(cartId, 4L, List.of()).andExpect(status().isOk());
+        }
+
+        // when
+        var result = addItem(cartId, 4L, List.of());
+
+        // then
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.reason", is(HttpStatus.BAD_REQUEST.getReasonPhrase())));
+    }
+
+    @Test
+    @DisplayName("Get Cart of another user should return 404 Not Found")
+    void getCartOfAnotherUserTest() throws Exception {
+        // given
+        String cartId = UUID.randomUUID().toString();
+        store.put(cartId, new DraftCart(cartId, "anotherUser", 5, discountCalculator));
+
+        // when
+        var result = mockMvc.perform(get("/api/v1/carts/" + cartId)
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        result.andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", is(String.format(DraftCart.CART_NOT_FOUND_TEMPLATE, cartId))));
+    }
+
+    @Test
+    @DisplayName("Remove Non-Existent Cart item should return 404 Not Found")
+    void removeItemNonExistentTest() throws Exception {
+        // given
+        String cartId = createCart();
+
+        // when
+        var result = mockMvc.perform(delete("/api/v1/carts/" + cartId + "/items/1")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        result.andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", is(String.format(DraftCart.CART_ITEM_NOT_FOUND_TEMPLATE, cartId, 1))));
+    }
+
+    private String createCart() throws Exception {
+        String response = mockMvc.perform(post("/api/v1/carts")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        return objectMapper.readValue(response, Cart.class).getId();
+    }
+
+    private ResultActions addItem(String cartId, Long drinkId, List<Long> toppingIds) throws Exception {
+        var item = InputOrderItem.builder()
+                .drinkId(drinkId)
+                .toppingIds(toppingIds)
+                .build();
+
+        return mockMvc.perform(post("/api/v1/carts/" + cartId + "/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(item)));
+    }
+}
@@ -0,0 +1,119 @@
+package com.bse.backend.assignment.coffeestore.order;
+
+import com.bse.backend.assignment.coffeestore.order.internal.discount.DiscountCalculator;
+import com.bse.backend.assignment.coffeestore.order.internal.discount.rule.DiscountRule;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class DiscountCalculatorTest {
+
+    @Autowired
+    private DiscountCalculator calculator;
+
+    @Autowired
+    private List<DiscountRule> discountRules;
+
+    @Test
+    @DisplayName("Compiled discounts should equal rule by rule BigDecimal discounts, including their scale")
+    void compiledDiscountMatchesRulesTest() {
+        // given
+        Random random = new Random(20231017L);
+
+        for (int i = 0; i < 10_000; i++) {
+            OrderEntity order = randomOrder(random);
+
+            // when
+            BigDecimal discount = calculator.calculateDiscount(order);
+
+            // then
+            assertEquals(discountByRules(order), discount, () -> "Discount differs for " + order);
+        }
+    }
+
+    @Test
+    @DisplayName("Compiled discounts should match at the promotion thresholds and on ties between rules")
+    void compiledDiscountMatchesRulesAtBoundariesTest() {
+        List<OrderEntity> orders = List.of(
+                order("12"),
+                order("12.00"),
+                order("12.01"),
+                order("12.001"),
+                order("4", "4", "4"),
+                order("4.00", "6.00", "6.00"),
+                order("16.00", "4.00", "4.00", "4.00", "4.00"),
+                order("3.005", "5", "5"),
+                order("0", "0", "0"),
+                order("-1", "20", "20"));
+
+        for (OrderEntity order : orders) {
+            assertEquals(discountByRules(order), calculator.calculateDiscount(order), () -> "Discount differs for " + order);
+        }
+    }
+
+    private BigDecimal discountByRules(OrderEntity order) {
+        BigDecimal effectiveDiscount = BigDecimal.ZERO;
+        BigDecimal lowestCartAmount = order.getPrice();
+
+        for (DiscountRule rule : discountRules) {
+            BigDecimal discount = rule.apply(order);
+            BigDecimal discountedPrice = order.getPrice().subtract(discount);
+            if (discountedPrice.compareTo(lowestCartAmount) < 0) {
+                effectiveDiscount = discount;
+                lowestCartAmount = discountedPrice;
+            }
+        }
+
+        return effectiveDiscount;
+    }
+
+    private static OrderEntity randomOrder(Random random) {
+        int itemCount = random.nextInt(7);
+        String[] prices = new String[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            int scale = random.nextInt(10) == 0 ? 3 : random.nextInt(3);
+            prices[i] = BigDecimal.valueOf(random.nextInt(1500), scale).toPlainString();
+        }
+
+        return itemCount == 0 && random.nextBoolean()
+                ? order(BigDecimal.valueOf(random.nextInt(3000), 2).toPlainString())
+                : order(prices);
+    }
+
+    /**
+     * Build an order from item prices, or from a bare total when a single price is given without items.
+     */
+    private static OrderEntity order(String... prices) {
+        if (prices.length == 1) {
+            return OrderEntity.builder()
+                    .price(new BigDecimal(prices[0]))
+                    .orderItems(List.of())
+                    .build();
+        }
+
+        List<OrderItemEntity> items = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (String price : prices) {
+            BigDecimal itemPrice = new BigDecimal(price);
+            items.add(OrderItemEntity.builder().price(itemPrice).build());
+            total = total.add(itemPrice);
+        }
+
+        return OrderEntity.builder()
+                .price(total)
+                .orderItems(items)
+                .build();
+    }
+
+}
@@ -1,13 +1,22 @@
 package com.bse.backend.assignment.coffeestore.order;
 
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
 import com.bse.backend.assignment.coffeestore.mock.WithMockCustomUser;
 import com.bse.backend.assignment.coffeestore.order.api.model.Order;
 import com.bse.backend.assignment.coffeestore.order.api.model.OrderDrink;
 import com.bse.backend.assignment.coffeestore.order.api.model.OrderItem;
 import com.bse.backend.assignment.coffeestore.order.api.model.OrderTopping;
 import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.OrderItemSnapshotBackfill;
 import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemSnapshot;
 import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderRepository;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.ToppingSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,9 +31,14 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.util.List;
 
+import static org.hamcrest.Matchers.comparesEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,9 +53,18 @@ class FetchOrderControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private OrderRepository repository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderItemSnapshotBackfill snapshotBackfill;
+
     @Test
     @DisplayName("Get all Orders should return a list of Orders with expected details")
     void getAllOrdersTest() throws Exception {
@@ -84,6 +107,98 @@ class FetchOrderControllerTest {
         result.andExpect(status().isForbidden());
     }
 
+    @Test
+    @DisplayName("Get Order summary should return the number, total price and total discount of the user's Orders")
+    void getOrderSummaryTest() throws Exception {
+        // given
+        prepareOrderEntity();
+        OrderEntity discounted = prepareOrderEntity();
+        discounted.setOriginalPrice(BigDecimal.valueOf(11));
+        discounted.setDiscount(BigDecimal.valueOf(2.75));
+        discounted.setPrice(BigDecimal.valueOf(8.25));
+        entityManager.flush();
+
+        // when
+        var result = mockMvc.perform(get("/api/v1/orders/summary")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.ordersPlaced", is(2)))
+                .andExpect(jsonPath("$.totalSpent", comparesEqualTo(new BigDecimal("19.25")), BigDecimal.class))
+                .andExpect(jsonPath("$.totalSaved", comparesEqualTo(new BigDecimal("2.75")), BigDecimal.class))
+                .andExpect(jsonPath("$.lastOrderAt", notNullValue()));
+    }
+
+    @Test
+    @DisplayName("Get Order page should return Orders page by page in ID order")
+    void getOrderPageTest() throws Exception {
+        // given
+        List<OrderEntity> entities = List.of(prepareOrderEntity(), prepareOrderEntity(), prepareOrderEntity());
+
+        // when
+        var firstPage = mockMvc.perform(get("/api/v1/orders/page")
+                .param("limit", "2")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        firstPage.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id", is(entities.get(0).getId()), Long.class))
+                .andExpect(jsonPath("$.items[1].id", is(entities.get(1).getId()), Long.class))
+                .andExpect(jsonPath("$.items[0].items[0].drink.name", is("Mocha")))
+                .andExpect(jsonPath("$.nextPageToken", notNullValue()));
+
+        // when
+        String pageToken = JsonPath.read(firstPage.andReturn().getResponse().getContentAsString(), "$.nextPageToken");
+        var lastPage = mockMvc.perform(get("/api/v1/orders/page")
+                .param("limit", "2")
+                .param("pageToken", pageToken)
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        lastPage.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(entities.get(2).getId()), Long.class))
+                .andExpect(jsonPath("$.nextPageToken", nullValue()));
+    }
+
+    @Test
+    @DisplayName("Get Order page with invalid token should return 400 Bad Request")
+    void getOrderPageInvalidTokenTest() throws Exception {
+        // when
+        var result = mockMvc.perform(get("/api/v1/orders/page")
+                .param("pageToken", "not a token")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.reason", is(HttpStatus.BAD_REQUEST.getReasonPhrase())))
+                .andExpect(jsonPath("$.message", is("Invalid page token")));
+    }
+
+    @Test
+    @DisplayName("Export Orders should stream one JSON Order per line")
+    void exportOrdersTest() throws Exception {
+        // given
+        List<Long> expectedIds = List.of(prepareOrderEntity().getId(), prepareOrderEntity().getId());
+
+        // when
+        var result = mockMvc.perform(get("/api/v1/orders/export"));
+
+        // then
+        result.andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+        String[] lines = result.andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(expectedIds.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            Order order = objectMapper.readValue(lines[i], Order.class);
+            assertEquals(expectedIds.get(i), order.getId());
+            assertEquals(TEST_USERNAME, order.getUsername());
+            assertEquals("Mocha", order.getItems().get(0).getDrink().getName());
+        }
+    }
+
     @Test
     @DisplayName("Get Order by ID should return the expected Order")
     void getOrderByIdTest() throws Exception {
@@ -142,12 +257,130 @@ class FetchOrderControllerTest {
         result.andExpect(status().isForbidden());
     }
 
+    @Test
+    @DisplayName("Get Order by ID should render the items as they were priced, without the current catalog")
+    void getOrderByIdSnapshotTest() throws Exception {
+        // given
+        OrderEntity entity = OrderEntity.builder()
+                .username(TEST_USERNAME)
+                .price(BigDecimal.valueOf(9))
+                .build();
+        entity.setOrderItems(List.of(OrderItemEntity.builder()
+                .order(entity)
+                .drinkId(99L)
+                .toppingIds(LongList.of(98L))
+                .price(BigDecimal.valueOf(9))
+                .snapshot(OrderItemSnapshot.builder()
+                        .drinkName("Discontinued Drink")
+                        .drinkPrice(BigDecimal.valueOf(7.5))
+                        .toppings(List.of(new ToppingSnapshot(98L, "Discontinued Topping", BigDecimal.valueOf(1.5))))
+                        .build())
+                .build()));
+        entity = repository.save(entity);
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        var result = mockMvc.perform(get("/api/v1/orders/" + entity.getId())
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].drink.id", is(99L), Long.class))
+                .andExpect(jsonPath("$.items[0].drink.name", is("Discontinued Drink")))
+                .andExpect(jsonPath("$.items[0].drink.price", is(BigDecimal.valueOf(7.5)), BigDecimal.class))
+                .andExpect(jsonPath("$.items[0].toppings", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].toppings[0].id", is(98L), Long.class))
+                .andExpect(jsonPath("$.items[0].toppings[0].name", is("Discontinued Topping")))
+                .andExpect(jsonPath("$.items[0].toppings[0].price", is(BigDecimal.valueOf(1.5)), BigDecimal.class));
+    }
+
+    @Test
+    @DisplayName("Snapshot backfill should capture the catalog details of items stored without a snapshot")
+    void snapshotBackfillTest() {
+        // given
+        OrderEntity entity = OrderEntity.builder()
+                .username(TEST_USERNAME)
+                .price(BigDecimal.valueOf(11))
+                .build();
+        entity.setOrderItems(List.of(OrderItemEntity.builder()
+                .order(entity)
+                .drinkId(3L)
+                .toppingIds(LongList.of(3L))
+                .price(BigDecimal.valueOf(11))
+                .build()));
+        entity = repository.save(entity);
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        long snapshotted = snapshotBackfill.run();
+
+        // then
+        entityManager.flush();
+        entityManager.clear();
+        OrderItemSnapshot snapshot = repository.findById(entity.getId()).orElseThrow()
+                .getOrderItems().get(0).getSnapshot();
+        assertEquals(1, snapshotted);
+        assertEquals("Mocha", snapshot.getDrinkName());
+        assertEquals(0, BigDecimal.valueOf(6).compareTo(snapshot.getDrinkPrice()));
+        assertEquals(List.of(new ToppingSnapshot(3L, "Chocolate sauce", new BigDecimal("5.00"))), snapshot.getToppings());
+    }
+
+    @Test
+    @DisplayName("Reading Orders should load the order graph in a bounded number of statements")
+    void getOrdersStatementCountTest() throws Exception {
+        // given
+        int orderCount = 100;
+        for (int i = 0; i < orderCount; i++) {
+            OrderEntity entity = OrderEntity.builder()
+                    .username(TEST_USERNAME)
+                    .price(BigDecimal.valueOf(22))
+                    .build();
+            entity.setOrderItems(List.of(
+                    OrderItemEntity.builder().order(entity).drinkId(3L).toppingIds(LongList.of(3L)).price(BigDecimal.valueOf(11)).build(),
+                    OrderItemEntity.builder().order(entity).drinkId(2L).toppingIds(LongList.of(1L, 2L)).price(BigDecimal.valueOf(10)).build()));
+            repository.save(entity);
+        }
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        // when
+        entityManager.clear();
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/orders"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(orderCount)))
+                .andExpect(jsonPath("$[99].items[1].toppings", hasSize(2)));
+        long listStatements = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/orders/page").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(orderCount)))
+                .andExpect(jsonPath("$.items[99].items[1].toppings", hasSize(2)));
+        long pageStatements = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/orders/export"))
+                .andExpect(status().isOk());
+        long exportStatements = statistics.getPrepareStatementCount();
+
+        // then
+        assertEquals(1, listStatements);
+        assertEquals(2, pageStatements);
+        // One full chunk and an empty keyset probe for the next one
+        assertEquals(3, exportStatements);
+    }
+
     private OrderEntity prepareOrderEntity() {
         return repository.save(OrderEntity.builder()
                 .username(TEST_USERNAME)
                 .orderItems(List.of(OrderItemEntity.builder()
                         .drinkId(3L)
-                        .toppingIds(List.of(3L))
+                        .toppingIds(LongList.of(3L))
                         .price(BigDecimal.valueOf(11))
                         .build()))
                 .price(BigDecimal.valueOf(11))
@@ -0,0 +1,162 @@
+package com.bse.backend.assignment.coffeestore.order;
+
+import com.bse.backend.assignment.coffeestore.mock.WithMockCustomUser;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.api.model.Order;
+import com.bse.backend.assignment.coffeestore.order.internal.OrderIdempotencyStore;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderIdempotencyKeyEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderIdempotencyKeyRepository;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@WithMockCustomUser(username = IdempotentOrderControllerTest.TEST_USERNAME)
+class IdempotentOrderControllerTest {
+
+    static final String TEST_USERNAME = "idempotentOrderControllerTest";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private OrderIdempotencyKeyRepository keyRepository;
+
+    @Autowired
+    private OrderIdempotencyStore idempotencyStore;
+
+    @Test
+    @DisplayName("Create Order retried with the same Idempotency-Key should return the first Order")
+    void createOrderRetryTest() throws Exception {
+        // given
+        String idempotencyKey = UUID.randomUUID().toString();
+        var inputOrder = inputOrder(1L);
+        long ordersBefore = repository.count();
+        Order first = readOrder(createOrder(idempotencyKey, inputOrder)
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false")));
+
+        // when
+        var result = createOrder(idempotencyKey, inputOrder);
+
+        // then
+        result.andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id", is(first.getId()), Long.class))
+                .andExpect(jsonPath("$.username", is(TEST_USERNAME)));
+        assertEquals(ordersBefore + 1, repository.count());
+    }
+
+    @Test
+    @DisplayName("Create Order retried after the key has left memory should return the Order stored with the key")
+    void createOrderRetryFromTableTest() throws Exception {
+        // given
+        String idempotencyKey = UUID.randomUUID().toString();
+        var inputOrder = inputOrder(2L);
+        Order first = readOrder(createOrder(idempotencyKey, inputOrder).andExpect(status().isCreated()));
+        idempotencyStore.invalidate(new OrderIdempotencyStore.Key(TEST_USERNAME, idempotencyKey));
+        long ordersBefore = repository.count();
+
+        // when
+        var result = createOrder(idempotencyKey, inputOrder);
+
+        // then
+        result.andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id", is(first.getId()), Long.class));
+        assertEquals(ordersBefore, repository.count());
+    }
+
+    @Test
+    @DisplayName("Create Order with an Idempotency-Key used for a different Order should return 409 Conflict")
+    void createOrderKeyReusedTest() throws Exception {
+        // given
+        String idempotencyKey = UUID.randomUUID().toString();
+        createOrder(idempotencyKey, inputOrder(1L)).andExpect(status().isCreated());
+
+        // when
+        var result = createOrder(idempotencyKey, inputOrder(3L));
+
+        // then
+        result.andExpect(status().isConflict())
+                .andExpect(jsonPath("$.reason", is(HttpStatus.CONFLICT.getReasonPhrase())))
+                .andExpect(jsonPath("$.message",
+                        is(String.format(OrderIdempotencyStore.KEY_REUSED_TEMPLATE, idempotencyKey))));
+    }
+
+    @Test
+    @DisplayName("Purge should delete the Idempotency-Keys whose TTL has passed")
+    void purgeExpiredKeysTest() {
+        // given
+        var expired = keyRepository.save(keyEntity(Instant.now().minus(1, ChronoUnit.MINUTES)));
+        var live = keyRepository.save(keyEntity(Instant.now().plus(1, ChronoUnit.HOURS)));
+
+        // when
+        idempotencyStore.purgeExpired();
+
+        // then
+        assertTrue(keyRepository.findById(expired.getId()).isEmpty());
+        assertTrue(keyRepository.findById(live.getId()).isPresent());
+    }
+
+    private ResultActions createOrder(String idempotencyKey, InputOrder inputOrder) throws Exception {
+        return mockMvc.perform(post("/api/v1/orders")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inputOrder)));
+    }
+
+    private Order readOrder(ResultActions result) throws Exception {
+        return objectMapper.readValue(result.andReturn().getResponse().getContentAsString(), Order.class);
+    }
+
+    private static InputOrder inputOrder(Long drinkId) {
+        return InputOrder.builder()
+                .items(List.of(InputOrderItem.builder()
+                        .drinkId(drinkId)
+                        .toppingIds(List.of(1L))
+                        .build()))
+                .build();
+    }
+
+    private static OrderIdempotencyKeyEntity keyEntity(Instant expiresAt) {
+        return OrderIdempotencyKeyEntity.builder()
+                .username(TEST_USERNAME)
+                .idempotencyKey(UUID.randomUUID().toString())
+                .requestHash("0".repeat(64))
+                .response("{}")
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.bse.backend.assignment.coffeestore.order;
 
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
 import com.bse.backend.assignment.coffeestore.drink.api.model.InputDrink;
 import com.bse.backend.assignment.coffeestore.mock.WithMockCustomUser;
 import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
@@ -10,6 +11,8 @@ import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEn
 import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemEntity;
 import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,17 +21,24 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -54,6 +64,9 @@ class ModifyOrderControllerTest {
     @Autowired
     private OrderRepository repository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     @DisplayName("Create new Order should return new Order")
     void createNewOrderTest() throws Exception {
@@ -124,6 +137,48 @@ class ModifyOrderControllerTest {
                         hasItems("must not be null", "must be greater than 0")));
     }
 
+    @Test
+    @DisplayName("Create new Order with too many toppings on an item should return 400 Bad Request")
+    void createNewOrderTooManyToppingsTest() throws Exception {
+        // given
+        var inputOrder = InputOrder.builder()
+                .items(List.of(InputOrderItem.builder()
+                        .drinkId(1L)
+                        .toppingIds(Collections.nCopies(InputOrderItem.MAX_TOPPINGS + 1, 1L))
+                        .build()))
+                .build();
+
+        // when
+        var result = mockMvc.perform(post("/api/v1/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inputOrder)));
+
+        // then
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors..fieldName", hasItems("items[0].toppingIds")));
+    }
+
+    @Test
+    @DisplayName("Create new Order with the maximum number of toppings on an item should return 201 Created")
+    void createNewOrderMaxToppingsTest() throws Exception {
+        // given
+        var inputOrder = InputOrder.builder()
+                .items(List.of(InputOrderItem.builder()
+                        .drinkId(1L)
+                        .toppingIds(Collections.nCopies(InputOrderItem.MAX_TOPPINGS, 2L))
+                        .build()))
+                .build();
+
+        // when
+        var result = mockMvc.perform(post("/api/v1/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inputOrder)));
+
+        // then
+        result.andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", notNullValue()));
+    }
+
     @Test
     @DisplayName("Create new Order with Non-Existent Drink should return 404 Not Found")
     void createNewOrderNonExistentDrinkTest() throws Exception {
@@ -165,6 +220,54 @@ class ModifyOrderControllerTest {
         result.andExpect(status().isForbidden());
     }
 
+    @Test
+    @DisplayName("Create Orders in bulk should create valid Orders and report failed ones")
+    void createOrdersTest() throws Exception {
+        // given
+        var inputOrders = List.of(
+                InputOrder.builder()
+                        .items(List.of(InputOrderItem.builder().drinkId(1L).toppingIds(List.of(2L)).build()))
+                        .build(),
+                InputOrder.builder()
+                        .items(List.of(InputOrderItem.builder().drinkId(99L).build()))
+                        .build(),
+                InputOrder.builder()
+                        .items(List.of(InputOrderItem.builder().drinkId(4L).build()))
+                        .build());
+
+        // when
+        var result = mockMvc.perform(post("/api/v1/orders/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inputOrders)));
+
+        // then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.results", hasSize(3)))
+                .andExpect(jsonPath("$.results[0].success", is(true)))
+                .andExpect(jsonPath("$.results[0].order.id", notNullValue()))
+                .andExpect(jsonPath("$.results[0].order.price", is(BigDecimal.valueOf(7.00)), BigDecimal.class))
+                .andExpect(jsonPath("$.results[1].index", is(1)))
+                .andExpect(jsonPath("$.results[1].success", is(false)))
+                .andExpect(jsonPath("$.results[1].error", is("Drink not found")))
+                .andExpect(jsonPath("$.results[2].success", is(true)))
+                .andExpect(jsonPath("$.results[2].order.items[0].drink.name", is("Tea")));
+        assertEquals(2, repository.findAllGraphsByUsername(TEST_USERNAME).size());
+    }
+
+    @Test
+    @DisplayName("Create Orders in bulk with an empty list should return 400 Bad Request")
+    void createOrdersEmptyTest() throws Exception {
+        // when
+        var result = mockMvc.perform(post("/api/v1/orders/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"));
+
+        // then
+        result.andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Update Order should return updated Order")
     void updateOrderTest() throws Exception {
@@ -195,10 +298,10 @@ class ModifyOrderControllerTest {
         var orderItemEntities = new ArrayList<OrderItemEntity>();
         orderItemEntities.add(OrderItemEntity.builder()
                 .drinkId(expectedDrink.getId())
-                .toppingIds(expectedToppings.stream()
+                .toppingIds(LongList.copyOf(expectedToppings.stream()
                         .skip(1)
                         .map(OrderTopping::getId)
-                        .toList())
+                        .toList()))
                 .price(BigDecimal.TEN)
                 .build());
 
@@ -228,7 +331,9 @@ class ModifyOrderControllerTest {
                 .andDo(print())
                 .andExpect(jsonPath("$.id", is(entity.getId()), Long.class))
                 .andExpect(jsonPath("$.username", is(entity.getUsername())))
-                .andExpect(jsonPath("$.price", is(14.00)))
+                .andExpect(jsonPath("$.originalPrice", is(14.00)))
+                .andExpect(jsonPath("$.discount", is(3.50)))
+                .andExpect(jsonPath("$.price", is(10.50)))
                 .andExpect(jsonPath("$.items", hasSize(1)))
                 .andExpect(jsonPath("$.items[0].drink.id", is(expectedDrink.getId()), Long.class))
                 .andExpect(jsonPath("$.items[0].drink.name", is(expectedDrink.getName())))
@@ -272,6 +377,95 @@ class ModifyOrderControllerTest {
                         is(String.format("No orders found for user %s and id %d", TEST_USERNAME, orderId))));
     }
 
+    @Test
+    @DisplayName("Update Order should keep the rows of unchanged items and reprice the order")
+    void updateOrderKeepsUnchangedItemsTest() throws Exception {
+        // given
+        var inputOrder = InputOrder.builder()
+                .items(List.of(
+                        InputOrderItem.builder().drinkId(1L).build(),
+                        InputOrderItem.builder().drinkId(4L).build()))
+                .build();
+        String created = mockMvc.perform(post("/api/v1/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputOrder)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.version", is(0)))
+                .andReturn().getResponse().getContentAsString();
+        long orderId = ((Number) JsonPath.read(created, "$.id")).longValue();
+        Map<Long, Long> itemIdsByDrink = repository.findById(orderId).orElseThrow().getOrderItems()
+                .stream()
+                .collect(Collectors.toMap(OrderItemEntity::getDrinkId, OrderItemEntity::getId));
+
+        var updatedOrder = InputOrder.builder()
+                .version(0L)
+                .items(List.of(
+                        InputOrderItem.builder().drinkId(1L).build(),
+                        InputOrderItem.builder().drinkId(2L).toppingIds(List.of(1L)).build()))
+                .build();
+
+        // when
+        var result = mockMvc.perform(put("/api/v1/orders/" + orderId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedOrder)));
+
+        // then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.version", is(1)))
+                .andExpect(jsonPath("$.price", is(11.00)))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].drink.name", is("Black Coffee")))
+                .andExpect(jsonPath("$.items[1].drink.name", is("Latte")))
+                .andExpect(jsonPath("$.items[1].toppings[0].name", is("Milk")));
+        entityManager.flush();
+        entityManager.clear();
+        Map<Long, Long> updatedItemIdsByDrink = repository.findById(orderId).orElseThrow().getOrderItems()
+                .stream()
+                .collect(Collectors.toMap(OrderItemEntity::getDrinkId, OrderItemEntity::getId));
+        assertEquals(itemIdsByDrink.get(1L), updatedItemIdsByDrink.get(1L));
+        assertEquals(itemIdsByDrink.get(4L), updatedItemIdsByDrink.get(2L));
+    }
+
+    @Test
+    @DisplayName("Update Order based on an outdated version should return 409 Conflict")
+    void updateOrderVersionConflictTest() throws Exception {
+        // given
+        var inputOrder = InputOrder.builder()
+                .items(List.of(InputOrderItem.builder().drinkId(1L).build()))
+                .build();
+        String created = mockMvc.perform(post("/api/v1/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputOrder)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long orderId = ((Number) JsonPath.read(created, "$.id")).longValue();
+
+        var appUpdate = InputOrder.builder()
+                .version(0L)
+                .items(List.of(InputOrderItem.builder().drinkId(2L).build()))
+                .build();
+        var kioskUpdate = InputOrder.builder()
+                .version(0L)
+                .items(List.of(InputOrderItem.builder().drinkId(3L).build()))
+                .build();
+        mockMvc.perform(put("/api/v1/orders/" + orderId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(appUpdate)))
+                .andExpect(status().isOk());
+
+        // when
+        var result = mockMvc.perform(put("/api/v1/orders/" + orderId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(kioskUpdate)));
+
+        // then
+        result.andExpect(status().isConflict())
+                .andExpect(jsonPath("$.reason", is(HttpStatus.CONFLICT.getReasonPhrase())))
+                .andExpect(jsonPath("$.message", is(String.format(
+                        "Order %d has been modified: the update is based on version 0, the current version is 1",
+                        orderId))));
+    }
+
     @Test
     @WithAnonymousUser
     @DisplayName("Update Order (Anonymous) should return 403 Forbidden")
@@ -300,7 +494,7 @@ class ModifyOrderControllerTest {
                 .username(TEST_USERNAME)
                 .orderItems(List.of(OrderItemEntity.builder()
                         .drinkId(1L)
-                        .toppingIds(List.of(1L))
+                        .toppingIds(LongList.of(1L))
                         .price(BigDecimal.valueOf(9))
                         .build()))
                 .price(BigDecimal.valueOf(9))
@@ -316,6 +510,96 @@ class ModifyOrderControllerTest {
         assertTrue(repository.findById(entity.getId()).isEmpty());
     }
 
+    @Test
+    @DisplayName("Delete all Orders should remove every Order of the current user only")
+    void deleteAllOrdersTest() throws Exception {
+        // given
+        var inputOrder = InputOrder.builder()
+                .items(List.of(
+                        InputOrderItem.builder().drinkId(1L).toppingIds(List.of(1L, 2L)).build(),
+                        InputOrderItem.builder().drinkId(2L).build()))
+                .build();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/v1/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(inputOrder)))
+                    .andExpect(status().isCreated());
+        }
+        var otherEntity = repository.save(OrderEntity.builder()
+                .username("otherUser")
+                .price(BigDecimal.valueOf(4))
+                .build());
+
+        // when
+        var result = mockMvc.perform(delete("/api/v1/orders")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders", is(2)))
+                .andExpect(jsonPath("$.items", is(4)));
+        assertTrue(repository.findAllGraphsByUsername(TEST_USERNAME).isEmpty());
+        assertTrue(repository.findById(otherEntity.getId()).isPresent());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Delete Orders created in a date range (ADMIN) should remove the Orders of all users in the range")
+    void deleteOrdersCreatedBetweenTest() throws Exception {
+        // given
+        var entities = List.of(
+                repository.save(OrderEntity.builder().username(TEST_USERNAME).price(BigDecimal.ONE).build()),
+                repository.save(OrderEntity.builder().username("otherUser").price(BigDecimal.ONE).build()));
+        Instant now = Instant.now();
+
+        // when
+        var result = mockMvc.perform(delete("/api/v1/orders/created")
+                .param("from", now.minus(1, ChronoUnit.HOURS).toString())
+                .param("to", now.plus(1, ChronoUnit.HOURS).toString())
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders", is(2)))
+                .andExpect(jsonPath("$.items", is(0)));
+        entities.forEach(entity -> assertTrue(repository.findById(entity.getId()).isEmpty()));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Delete Orders with an empty date range should return 400 Bad Request")
+    void deleteOrdersCreatedBetweenInvalidRangeTest() throws Exception {
+        // given
+        Instant now = Instant.now();
+
+        // when
+        var result = mockMvc.perform(delete("/api/v1/orders/created")
+                .param("from", now.toString())
+                .param("to", now.toString())
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.reason", is(HttpStatus.BAD_REQUEST.getReasonPhrase())))
+                .andExpect(jsonPath("$.message", is("The start of the date range must be before its end")));
+    }
+
+    @Test
+    @DisplayName("Delete Orders created in a date range (USER) should return 403 Forbidden")
+    void deleteOrdersCreatedBetweenUserTest() throws Exception {
+        // given
+        Instant now = Instant.now();
+
+        // when
+        var result = mockMvc.perform(delete("/api/v1/orders/created")
+                .param("from", now.minus(1, ChronoUnit.HOURS).toString())
+                .param("to", now.toString())
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        result.andExpect(status().isForbidden());
+    }
+
     @Test
     @WithAnonymousUser
     @DisplayName("Delete Order (Anonymous) should return 403 Forbidden")
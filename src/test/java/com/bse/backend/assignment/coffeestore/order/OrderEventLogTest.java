@@ -0,0 +1,146 @@
+package com.bse.backend.assignment.coffeestore.order;
+
+import com.bse.backend.assignment.coffeestore.mock.WithMockCustomUser;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.internal.event.OrderEventLog;
+import com.bse.backend.assignment.coffeestore.security.api.model.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional: events are appended once the order transactions have committed.
+ */
+@SpringBootTest(properties = "coffee-store.order.event-log.enabled=true")
+@AutoConfigureMockMvc
+@WithMockCustomUser(username = OrderEventLogTest.TEST_USERNAME, role = Role.ADMIN)
+class OrderEventLogTest {
+
+    static final String TEST_USERNAME = "orderEventLogTest";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderEventLog eventLog;
+
+    @Test
+    @DisplayName("Order events should record created, updated and deleted Orders once committed, from an offset")
+    void tailOrderEventsTest() throws Exception {
+        // given
+        long from = eventLog.nextSequence();
+
+        // when
+        String created = mockMvc.perform(post("/api/v1/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(InputOrder.builder()
+                                .items(List.of(
+                                        InputOrderItem.builder().drinkId(1L).toppingIds(List.of(3L, 1L)).build(),
+                                        InputOrderItem.builder().drinkId(4L).build()))
+                                .build())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        int orderId = JsonPath.read(created, "$.id");
+        mockMvc.perform(put("/api/v1/orders/{id}", orderId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(InputOrder.builder()
+                                .items(List.of(InputOrderItem.builder().drinkId(3L).build()))
+                                .build())))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/v1/orders/{id}", orderId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/v1/orders/quote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(InputOrder.builder()
+                                .items(List.of(InputOrderItem.builder().drinkId(2L).build()))
+                                .build())))
+                .andExpect(status().isOk());
+
+        // then
+        var result = mockMvc.perform(get("/api/v1/orders/events")
+                .param("from", String.valueOf(from)));
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", hasSize(3)))
+                .andExpect(jsonPath("$.nextSequence", is((int) from + 3)))
+                .andExpect(jsonPath("$.events[*].type", contains("ORDER_CREATED", "ORDER_UPDATED", "ORDER_DELETED")))
+                .andExpect(jsonPath("$.events[*].orderId", contains(orderId, orderId, orderId)))
+                .andExpect(jsonPath("$.events[0].sequence", is((int) from)))
+                .andExpect(jsonPath("$.events[0].username", is(TEST_USERNAME)))
+                .andExpect(jsonPath("$.events[0].version", is(0)))
+                .andExpect(jsonPath("$.events[0].price", comparesEqualTo(BigDecimal.valueOf(10.5)), BigDecimal.class))
+                .andExpect(jsonPath("$.events[0].discount", comparesEqualTo(BigDecimal.valueOf(3.5)), BigDecimal.class))
+                .andExpect(jsonPath("$.events[0].items[0].drinkId", is(1)))
+                .andExpect(jsonPath("$.events[0].items[0].toppingIds", contains(3, 1)))
+                .andExpect(jsonPath("$.events[0].items[1].toppingIds", hasSize(0)))
+                .andExpect(jsonPath("$.events[1].version", is(1)))
+                .andExpect(jsonPath("$.events[1].price", comparesEqualTo(BigDecimal.valueOf(6)), BigDecimal.class))
+                .andExpect(jsonPath("$.events[1].items", hasSize(1)));
+
+        // when read in two runs
+        var firstRun = eventLog.read(from, 2);
+        var secondRun = eventLog.read(firstRun.getNextSequence(), 10);
+
+        // then
+        assertEquals(2, firstRun.getEvents().size());
+        assertEquals(from + 2, secondRun.getEvents().get(0).getSequence());
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("Order events should not record changes that are rolled back")
+    void rolledBackChangesTest() throws Exception {
+        // given
+        long from = eventLog.nextSequence();
+
+        // when
+        mockMvc.perform(post("/api/v1/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(InputOrder.builder()
+                                .items(List.of(InputOrderItem.builder().drinkId(1L).build()))
+                                .build())))
+                .andExpect(status().isCreated());
+
+        // then
+        mockMvc.perform(get("/api/v1/orders/events")
+                        .param("from", String.valueOf(from)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", hasSize(0)));
+    }
+
+    @Test
+    @WithMockCustomUser(username = TEST_USERNAME)
+    @DisplayName("Read order events without the ADMIN role should return 403 Forbidden")
+    void tailOrderEventsForbiddenTest() throws Exception {
+        // when
+        var result = mockMvc.perform(get("/api/v1/orders/events"));
+
+        // then
+        result.andExpect(status().isForbidden());
+    }
+}
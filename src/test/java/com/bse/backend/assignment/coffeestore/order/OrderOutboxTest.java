@@ -0,0 +1,211 @@
+package com.bse.backend.assignment.coffeestore.order;
+
+import com.bse.backend.assignment.coffeestore.mock.WithMockCustomUser;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.internal.config.OrderConfigurationProperties;
+import com.bse.backend.assignment.coffeestore.order.internal.event.OrderOutboxRelay;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderOutboxEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderOutboxRepository;
+import com.bse.backend.assignment.coffeestore.security.api.model.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional: the relay delivers committed events only. The scheduled relay runs are pushed out of the way,
+ * so the test runs the relay itself against a stand-in sink.
+ */
+@SpringBootTest(properties = {
+        "coffee-store.order.outbox.enabled=true",
+        "coffee-store.order.outbox.poll-interval=1h",
+        "coffee-store.order.outbox.linger=0s",
+        "coffee-store.order.outbox.initial-backoff=100ms"
+})
+@AutoConfigureMockMvc
+@WithMockCustomUser(username = OrderOutboxTest.TEST_USERNAME, role = Role.ADMIN)
+class OrderOutboxTest {
+
+    static final String TEST_USERNAME = "orderOutboxTest";
+
+    private static final List<String> RECEIVED = new CopyOnWriteArrayList<>();
+    private static volatile int sinkStatus = 200;
+    private static final HttpServer SINK = startSink();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderOutboxRelay relay;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private OrderConfigurationProperties properties;
+
+    @DynamicPropertySource
+    static void sinkProperties(DynamicPropertyRegistry registry) {
+        registry.add("coffee-store.order.outbox.sink-url",
+                () -> "http://localhost:" + SINK.getAddress().getPort() + "/order-events");
+    }
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        properties.getOutbox().setLinger(Duration.ZERO);
+        sinkStatus = 200;
+        mockMvc.perform(delete("/api/v1/orders"))
+                .andExpect(status().isOk());
+        relayUntilDelivered();
+        RECEIVED.clear();
+    }
+
+    @AfterAll
+    static void stopSink() {
+        SINK.stop(0);
+    }
+
+    @Test
+    @DisplayName("Order outbox should keep an event the sink has not accepted and deliver it on a later run")
+    void retryFailedDeliveryTest() throws Exception {
+        // given
+        sinkStatus = 503;
+        int orderId = createOrder();
+
+        // when
+        relay.relay();
+
+        // then
+        List<OrderOutboxEntity> pending = outboxRepository.findAll();
+        assertEquals(1, pending.size());
+        assertEquals(1, pending.get(0).getAttempts());
+        assertNull(pending.get(0).getClaimToken());
+        assertTrue(pending.get(0).getAvailableAt().isAfter(pending.get(0).getCreatedAt()));
+        assertEquals(1, RECEIVED.size());
+
+        // when
+        sinkStatus = 200;
+        relayUntilDelivered();
+
+        // then
+        String batch = RECEIVED.get(RECEIVED.size() - 1);
+        assertEquals(List.of("ORDER_CREATED"), JsonPath.read(batch, "$[*].type"));
+        assertEquals(List.of(orderId), JsonPath.read(batch, "$[*].orderId"));
+        assertEquals(List.of(TEST_USERNAME), JsonPath.read(batch, "$[*].username"));
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    @DisplayName("Order outbox should hold a partial batch back until it has lingered, then deliver it in one request")
+    void lingerTest() throws Exception {
+        // given
+        properties.getOutbox().setLinger(Duration.ofHours(1));
+        int firstId = createOrder();
+        int secondId = createOrder();
+
+        // when
+        relay.relay();
+
+        // then
+        assertEquals(0, RECEIVED.size());
+        assertEquals(2, outboxRepository.count());
+
+        // when
+        properties.getOutbox().setLinger(Duration.ZERO);
+        relay.relay();
+
+        // then
+        assertEquals(1, RECEIVED.size());
+        assertEquals(List.of(firstId, secondId), JsonPath.read(RECEIVED.get(0), "$[*].orderId"));
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    @DisplayName("Order outbox should store and deliver the event of an order whatever its number of items")
+    void largeOrderTest() throws Exception {
+        // given
+        List<InputOrderItem> items = IntStream.range(0, 500)
+                .mapToObj(i -> InputOrderItem.builder().drinkId(1L).toppingIds(List.of(1L, 2L)).build())
+                .toList();
+
+        // when
+        mockMvc.perform(post("/api/v1/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(InputOrder.builder().items(items).build())))
+                .andExpect(status().isCreated());
+        relayUntilDelivered();
+
+        // then
+        List<Integer> drinkIds = JsonPath.read(RECEIVED.get(RECEIVED.size() - 1), "$[0].items[*].drinkId");
+        assertEquals(500, drinkIds.size());
+    }
+
+    private int createOrder() throws Exception {
+        String created = mockMvc.perform(post("/api/v1/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(InputOrder.builder()
+                                .items(List.of(InputOrderItem.builder().drinkId(2L).toppingIds(List.of(1L)).build()))
+                                .build())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        return JsonPath.read(created, "$.id");
+    }
+
+    private void relayUntilDelivered() throws InterruptedException {
+        Instant deadline = Instant.now().plusSeconds(10);
+        relay.relay();
+        while (outboxRepository.count() > 0 && Instant.now().isBefore(deadline)) {
+            Thread.sleep(50);
+            relay.relay();
+        }
+        assertEquals(0, outboxRepository.count());
+    }
+
+    private static HttpServer startSink() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/order-events", exchange -> {
+                RECEIVED.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                exchange.sendResponseHeaders(sinkStatus, -1);
+                exchange.close();
+            });
+            server.start();
+
+            return server;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.bse.backend.assignment.coffeestore.order;
+
+import com.bse.backend.assignment.coffeestore.mock.WithMockCustomUser;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.api.model.Order;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routes read-only transactions to a second in-memory database standing in for a replica. The replica only gets
+ * the data the test copies over, so reads served by it do not see orders written after the copy.
+ */
+@SpringBootTest(properties = {
+        "coffee-store.datasource.replica.enabled=true",
+        "coffee-store.datasource.replica.driver-class-name=org.h2.Driver",
+        "coffee-store.datasource.replica.url=jdbc:h2:mem:replicaRoutingTest;DB_CLOSE_DELAY=-1",
+        "coffee-store.datasource.replica.username=sa",
+        "coffee-store.datasource.replica.password=password"
+})
+@AutoConfigureMockMvc
+@WithMockCustomUser(username = OrderReplicaRoutingTest.TEST_USERNAME)
+class OrderReplicaRoutingTest {
+
+    static final String TEST_USERNAME = "orderReplicaRoutingTest";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Test
+    @DisplayName("Get Orders should read from the replica without flushing, while Orders are written to the primary")
+    void readOrdersFromReplicaTest() throws Exception {
+        // given
+        Order replicated = createOrder(1L);
+        copyPrimaryToReplica();
+        Order notReplicated = createOrder(2L);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        var pageResult = mockMvc.perform(get("/api/v1/orders/page")
+                .contentType(MediaType.APPLICATION_JSON));
+        var replicatedResult = mockMvc.perform(get("/api/v1/orders/" + replicated.getId())
+                .contentType(MediaType.APPLICATION_JSON));
+        var notReplicatedResult = mockMvc.perform(get("/api/v1/orders/" + notReplicated.getId())
+                .contentType(MediaType.APPLICATION_JSON));
+        long readFlushes = statistics.getFlushCount();
+        var updateResult = mockMvc.perform(put("/api/v1/orders/" + notReplicated.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inputOrder(3L))));
+
+        // then
+        pageResult.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(replicated.getId()), Long.class));
+        replicatedResult.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].drink.name", is("Black Coffee")));
+        notReplicatedResult.andExpect(status().isNotFound());
+        assertEquals(0, readFlushes);
+        updateResult.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].drink.name", is("Mocha")));
+
+        mockMvc.perform(delete("/api/v1/orders/" + replicated.getId())).andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/v1/orders/" + notReplicated.getId())).andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("Read-only scope without a transaction should read from the primary")
+    void readOnlyScopeWithoutTransactionFromPrimaryTest() {
+        // given
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate withoutTransaction = readOnly(TransactionDefinition.PROPAGATION_SUPPORTS);
+        TransactionTemplate withTransaction = readOnly(TransactionDefinition.PROPAGATION_REQUIRED);
+
+        // when
+        String supportsDatabase = withoutTransaction.execute(status ->
+                jdbcTemplate.queryForObject("SELECT CURRENT_CATALOG", String.class));
+        String requiredDatabase = withTransaction.execute(status ->
+                jdbcTemplate.queryForObject("SELECT CURRENT_CATALOG", String.class));
+
+        // then
+        assertEquals("TESTDB", supportsDatabase);
+        assertEquals("REPLICAROUTINGTEST", requiredDatabase);
+    }
+
+    private TransactionTemplate readOnly(int propagation) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(propagation);
+        template.setReadOnly(true);
+
+        return template;
+    }
+
+    private Order createOrder(Long drinkId) throws Exception {
+        String response = mockMvc.perform(post("/api/v1/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputOrder(drinkId))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        return objectMapper.readValue(response, Order.class);
+    }
+
+    private void copyPrimaryToReplica() {
+        String script = Path.of("target", "replica-routing-test.sql").toAbsolutePath().toString();
+        new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + script + "'");
+
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        replica.execute("RUNSCRIPT FROM '" + script + "'");
+    }
+
+    private static InputOrder inputOrder(Long drinkId) {
+        return InputOrder.builder()
+                .items(List.of(InputOrderItem.builder()
+                        .drinkId(drinkId)
+                        .toppingIds(List.of(1L))
+                        .build()))
+                .build();
+    }
+}
@@ -0,0 +1,214 @@
+package com.bse.backend.assignment.coffeestore.order;
+
+import com.bse.backend.assignment.coffeestore.mock.WithMockCustomUser;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderRepository;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderSummaryEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderSummaryRepository;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderTotals;
+import com.bse.backend.assignment.coffeestore.security.api.model.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "coffee-store.order.summary.maintained=true")
+@AutoConfigureMockMvc
+@Transactional
+@WithMockCustomUser(username = OrderSummaryTest.TEST_USERNAME, role = Role.ADMIN)
+class OrderSummaryTest {
+
+    static final String TEST_USERNAME = "orderSummaryTest";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private OrderSummaryRepository summaryRepository;
+
+    @Test
+    @DisplayName("Maintained Order summary should follow creating, updating and deleting single Orders")
+    void maintainedSummaryFollowsSingleOrdersTest() throws Exception {
+        // given
+        mockMvc.perform(get("/api/v1/orders/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ordersPlaced", is(0)))
+                .andExpect(jsonPath("$.lastOrderAt", nullValue()));
+
+        // when
+        long discountedOrderId = createOrder(order(1L, 4L, 2L));
+        long orderId = createOrder(order(3L));
+
+        // then
+        assertSummary(2, BigDecimal.valueOf(15), BigDecimal.valueOf(3));
+
+        // when
+        mockMvc.perform(put("/api/v1/orders/{id}", orderId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(InputOrder.builder()
+                                .items(List.of(InputOrderItem.builder().drinkId(3L).toppingIds(List.of(3L)).build()))
+                                .build())))
+                .andExpect(status().isOk());
+
+        // then
+        assertSummary(2, BigDecimal.valueOf(20), BigDecimal.valueOf(3));
+
+        // when
+        mockMvc.perform(delete("/api/v1/orders/{id}", discountedOrderId))
+                .andExpect(status().isNoContent());
+
+        // then
+        assertSummary(1, BigDecimal.valueOf(11), BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("Maintained Order summary should follow batches, date range deletes and deleting all Orders")
+    void maintainedSummaryFollowsBulkOperationsTest() throws Exception {
+        // given
+        Instant from = Instant.now().minus(1, ChronoUnit.MINUTES);
+        createOrder(order(2L));
+
+        // when
+        mockMvc.perform(post("/api/v1/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(order(1L), order(3L, 3L, 3L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(2)));
+
+        // then
+        assertSummary(3, BigDecimal.valueOf(21), BigDecimal.valueOf(6));
+
+        // when
+        mockMvc.perform(delete("/api/v1/orders/created")
+                        .param("from", from.toString())
+                        .param("to", Instant.now().plus(1, ChronoUnit.MINUTES).toString()))
+                .andExpect(status().isOk());
+
+        // then
+        assertSummary(0, BigDecimal.ZERO, BigDecimal.ZERO);
+
+        // when
+        createOrder(order(4L));
+        mockMvc.perform(delete("/api/v1/orders"))
+                .andExpect(status().isOk());
+
+        // then
+        assertSummary(0, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("Maintained Order summary should be seeded by the first change, not by reads")
+    void summarySeededByFirstChangeTest() throws Exception {
+        // given
+        createOrder(order(2L));
+        summaryRepository.deleteAll();
+
+        // when
+        mockMvc.perform(get("/api/v1/orders/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ordersPlaced", is(1)));
+
+        // then
+        assertTrue(summaryRepository.findById(TEST_USERNAME).isEmpty());
+
+        // when
+        createOrder(order(3L));
+
+        // then
+        assertSummary(2, BigDecimal.valueOf(11), BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("Maintained Order summary of an older generation should be ignored and seeded again")
+    void staleGenerationRebuiltTest() throws Exception {
+        // given
+        createOrder(order(2L));
+        summaryRepository.saveAndFlush(OrderSummaryEntity.builder()
+                .username(TEST_USERNAME)
+                .generation(0)
+                .ordersPlaced(42)
+                .totalSpent(BigDecimal.valueOf(1000))
+                .totalSaved(BigDecimal.valueOf(100))
+                .build());
+
+        // when
+        mockMvc.perform(get("/api/v1/orders/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ordersPlaced", is(1)))
+                .andExpect(jsonPath("$.totalSpent", comparesEqualTo(BigDecimal.valueOf(5)), BigDecimal.class));
+
+        // when
+        createOrder(order(3L));
+
+        // then
+        assertSummary(2, BigDecimal.valueOf(11), BigDecimal.ZERO);
+    }
+
+    private static InputOrder order(Long... drinkIds) {
+        return InputOrder.builder()
+                .items(Arrays.stream(drinkIds)
+                        .map(drinkId -> InputOrderItem.builder().drinkId(drinkId).build())
+                        .toList())
+                .build();
+    }
+
+    private long createOrder(InputOrder inputOrder) throws Exception {
+        String created = mockMvc.perform(post("/api/v1/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputOrder)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        return ((Number) JsonPath.read(created, "$.id")).longValue();
+    }
+
+    /**
+     * The endpoint, the summary row and the aggregate over the orders should all agree.
+     */
+    private void assertSummary(long orders, BigDecimal spent, BigDecimal saved) throws Exception {
+        OrderTotals aggregate = repository.sumByUsername(TEST_USERNAME);
+        OrderTotals row = summaryRepository.findTotalsByUsername(TEST_USERNAME, 1).orElseThrow();
+
+        mockMvc.perform(get("/api/v1/orders/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ordersPlaced", is((int) orders)))
+                .andExpect(jsonPath("$.totalSpent", comparesEqualTo(spent), BigDecimal.class))
+                .andExpect(jsonPath("$.totalSaved", comparesEqualTo(saved), BigDecimal.class));
+        assertEquals(aggregate.ordersPlaced(), row.ordersPlaced());
+        assertThat(row.totalSpent(), comparesEqualTo(aggregate.totalSpent()));
+        assertThat(row.totalSaved(), comparesEqualTo(aggregate.totalSaved()));
+        assertEquals(aggregate.lastOrderAt(), row.lastOrderAt());
+    }
+}
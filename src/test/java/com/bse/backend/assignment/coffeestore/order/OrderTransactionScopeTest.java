@@ -0,0 +1,202 @@
+package com.bse.backend.assignment.coffeestore.order;
+
+import com.bse.backend.assignment.coffeestore.mock.WithMockCustomUser;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.api.model.Order;
+import com.bse.backend.assignment.coffeestore.order.internal.OrderControllerImpl;
+import com.bse.backend.assignment.coffeestore.order.internal.discount.DiscountCalculator;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs requests without a test transaction around them, as they run in production with open-in-view disabled:
+ * every request only gets the transactions its service opens.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockCustomUser(username = OrderTransactionScopeTest.TEST_USERNAME)
+class OrderTransactionScopeTest {
+
+    static final String TEST_USERNAME = "orderTransactionScopeTest";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @SpyBean
+    private DiscountCalculator discountCalculator;
+
+    @Test
+    @DisplayName("Create Order should price the Order outside of the transaction that inserts it")
+    void createOrderTransactionCountTest() throws Exception {
+        // given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        var result = mockMvc.perform(post("/api/v1/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inputOrder(1L, List.of(1L, 2L, 3L)))));
+
+        // then
+        String response = result.andExpect(status().isCreated())
+                .andExpect(jsonPath("$.price", comparesEqualTo(BigDecimal.valueOf(10.5)), BigDecimal.class))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertEquals(1, statistics.getTransactionCount());
+
+        mockMvc.perform(delete("/api/v1/orders/" + objectMapper.readValue(response, Order.class).getId()))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("Create Order with an Idempotency-Key should price the Order before a connection is taken for it")
+    void createIdempotentOrderPricedWithoutConnectionTest() throws Exception {
+        // given
+        List<Boolean> connectionHeld = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            connectionHeld.add(TransactionSynchronizationManager.isActualTransactionActive()
+                    || !TransactionSynchronizationManager.getResourceMap().isEmpty());
+            return invocation.callRealMethod();
+        }).when(discountCalculator).calculateDiscount(any(OrderEntity.class));
+
+        // when
+        var result = mockMvc.perform(post("/api/v1/orders")
+                .header(OrderControllerImpl.IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inputOrder(1L, List.of(1L, 2L, 3L)))));
+
+        // then
+        String response = result.andExpect(status().isCreated())
+                .andExpect(jsonPath("$.price", comparesEqualTo(BigDecimal.valueOf(10.5)), BigDecimal.class))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertEquals(List.of(false), connectionHeld);
+
+        mockMvc.perform(delete("/api/v1/orders/" + objectMapper.readValue(response, Order.class).getId()))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("Create Order with 10 items should insert the Order and its items in batched statements")
+    void createOrderBatchedInsertsTest() throws Exception {
+        // given
+        Order warmUp = createOrder(inputOrder(1L, List.of()));
+        List<InputOrderItem> items = new ArrayList<>();
+        for (long i = 0; i < 10; i++) {
+            items.add(InputOrderItem.builder()
+                    .drinkId(i % 4 + 1)
+                    .toppingIds(List.of())
+                    .build());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        Order order = createOrder(InputOrder.builder().items(items).build());
+
+        // then
+        assertEquals(11, statistics.getEntityInsertCount());
+        // One insert for the order and one batch for its items, plus a sequence call per pool of ids that runs out
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements >= 2 && statements <= 4, "Prepared " + statements + " statements");
+
+        mockMvc.perform(delete("/api/v1/orders/" + warmUp.getId())).andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/v1/orders/" + order.getId())).andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("Order lifecycle should work without a session held open for the request")
+    void orderLifecycleWithoutOpenSessionTest() throws Exception {
+        // given
+        String response = mockMvc.perform(post("/api/v1/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputOrder(1L, List.of(1L)))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Order order = objectMapper.readValue(response, Order.class);
+
+        // when
+        var updateResult = mockMvc.perform(put("/api/v1/orders/" + order.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inputOrder(2L, List.of(2L)))));
+        var getResult = mockMvc.perform(get("/api/v1/orders/" + order.getId())
+                .contentType(MediaType.APPLICATION_JSON));
+        var pageResult = mockMvc.perform(get("/api/v1/orders/page")
+                .contentType(MediaType.APPLICATION_JSON));
+        var deleteResult = mockMvc.perform(delete("/api/v1/orders/" + order.getId()));
+
+        // then
+        updateResult.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].drink.name", is("Latte")));
+        getResult.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].toppings[0].name", is("Hazelnut syrup")))
+                .andExpect(jsonPath("$.price", comparesEqualTo(BigDecimal.valueOf(8)), BigDecimal.class));
+        pageResult.andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)));
+        deleteResult.andExpect(status().isNoContent());
+    }
+
+    private Order createOrder(InputOrder inputOrder) throws Exception {
+        String response = mockMvc.perform(post("/api/v1/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputOrder)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        return objectMapper.readValue(response, Order.class);
+    }
+
+    private static InputOrder inputOrder(Long drinkId, List<Long> toppingIds) {
+        return InputOrder.builder()
+                .items(List.of(InputOrderItem.builder()
+                        .drinkId(drinkId)
+                        .toppingIds(toppingIds)
+                        .build()))
+                .build();
+    }
+}
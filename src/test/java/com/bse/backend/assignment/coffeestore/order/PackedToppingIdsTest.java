@@ -0,0 +1,85 @@
+package com.bse.backend.assignment.coffeestore.order;
+
+import com.bse.backend.assignment.coffeestore.common.collection.LongList;
+import com.bse.backend.assignment.coffeestore.common.collection.PackedLongs;
+import com.bse.backend.assignment.coffeestore.order.internal.ToppingIdsMigration;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderItemEntity;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Not transactional: H2 commits the open transaction on every schema change the migration makes.
+ */
+@SpringBootTest
+class PackedToppingIdsTest {
+
+    private static final String TEST_USERNAME = "packedToppingIdsTest";
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ToppingIdsMigration migration;
+
+    @Test
+    @DisplayName("Packed topping ids should keep order, duplicates and the full long range")
+    void packRoundTripTest() {
+        // given
+        LongList ids = LongList.of(3L, 1L, 3L, 200L, 0L, -5L, Long.MAX_VALUE, Long.MIN_VALUE);
+
+        // when
+        byte[] packed = PackedLongs.pack(ids);
+
+        // then
+        assertEquals(ids, PackedLongs.unpack(packed));
+        assertArrayEquals(new byte[] { 6, 3, 4 }, PackedLongs.pack(LongList.of(3L, 1L, 3L)));
+        assertEquals(LongList.of(), PackedLongs.unpack(PackedLongs.pack(LongList.of())));
+    }
+
+    @Test
+    @DisplayName("Topping ids migration should pack the ids of the former collection table and drop it")
+    void migrateToppingIdsTest() {
+        // given
+        OrderEntity order = OrderEntity.builder()
+                .username(TEST_USERNAME)
+                .price(BigDecimal.valueOf(8))
+                .build();
+        order.setOrderItems(List.of(
+                OrderItemEntity.builder().order(order).drinkId(1L).price(BigDecimal.valueOf(4)).build(),
+                OrderItemEntity.builder().order(order).drinkId(4L).price(BigDecimal.valueOf(4)).build()));
+        order = repository.save(order);
+        long withToppings = order.getOrderItems().get(0).getId();
+        long withoutToppings = order.getOrderItems().get(1).getId();
+        jdbcTemplate.execute("CREATE TABLE order_item_entity_topping_ids "
+                + "(order_item_entity_id BIGINT NOT NULL, topping_ids BIGINT)");
+        jdbcTemplate.update("INSERT INTO order_item_entity_topping_ids VALUES (?, 3), (?, 1), (?, 3)",
+                withToppings, withToppings, withToppings);
+
+        // when
+        long migrated = migration.run();
+
+        // then
+        assertEquals(2, migrated);
+        List<OrderItemEntity> items = repository.findAllItemsByIdIn(List.of(withToppings, withoutToppings));
+        assertEquals(LongList.of(3L, 1L, 3L), items.get(0).getToppingIds());
+        assertEquals(LongList.of(), items.get(1).getToppingIds());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES "
+                + "WHERE UPPER(TABLE_NAME) = 'ORDER_ITEM_ENTITY_TOPPING_IDS'", Integer.class));
+
+        repository.deleteById(order.getId());
+    }
+}
@@ -0,0 +1,178 @@
+package com.bse.backend.assignment.coffeestore.order;
+
+import com.bse.backend.assignment.coffeestore.drink.api.DrinkService;
+import com.bse.backend.assignment.coffeestore.drink.api.model.InputDrink;
+import com.bse.backend.assignment.coffeestore.mock.WithMockCustomUser;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrder;
+import com.bse.backend.assignment.coffeestore.order.api.model.InputOrderItem;
+import com.bse.backend.assignment.coffeestore.order.internal.OrderQuoteCache;
+import com.bse.backend.assignment.coffeestore.order.internal.persistence.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@WithMockCustomUser(username = QuoteOrderControllerTest.TEST_USERNAME)
+class QuoteOrderControllerTest {
+
+    static final String TEST_USERNAME = "quoteOrderControllerTest";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private OrderQuoteCache quoteCache;
+
+    @Autowired
+    private DrinkService drinkService;
+
+    @Test
+    @DisplayName("Quote Order should price the Order with its discount without creating it")
+    void quoteOrderTest() throws Exception {
+        // given
+        long ordersBefore = repository.count();
+        var inputOrder = InputOrder.builder()
+                .items(List.of(InputOrderItem.builder()
+                        .drinkId(1L)
+                        .toppingIds(List.of(1L, 2L, 3L))
+                        .build()))
+                .build();
+
+        // when
+        var result = mockMvc.perform(post("/api/v1/orders/quote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inputOrder)));
+
+        // then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.originalPrice", comparesEqualTo(BigDecimal.valueOf(14)), BigDecimal.class))
+                .andExpect(jsonPath("$.discount", comparesEqualTo(BigDecimal.valueOf(3.5)), BigDecimal.class))
+                .andExpect(jsonPath("$.price", comparesEqualTo(BigDecimal.valueOf(10.5)), BigDecimal.class));
+        assertEquals(ordersBefore, repository.count());
+    }
+
+    @Test
+    @DisplayName("Quote Order should reuse the quote of an identical cart regardless of item and topping order")
+    void quoteOrderMemoizedTest() throws Exception {
+        // given
+        var inputOrder = InputOrder.builder()
+                .items(List.of(
+                        InputOrderItem.builder().drinkId(2L).toppingIds(List.of(2L, 1L)).build(),
+                        InputOrderItem.builder().drinkId(4L).build(),
+                        InputOrderItem.builder().drinkId(3L).build()))
+                .build();
+        var sameCart = InputOrder.builder()
+                .items(List.of(
+                        InputOrderItem.builder().drinkId(3L).build(),
+                        InputOrderItem.builder().drinkId(2L).toppingIds(List.of(1L, 2L, 1L)).build(),
+                        InputOrderItem.builder().drinkId(4L).build()))
+                .build();
+        mockMvc.perform(post("/api/v1/orders/quote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputOrder)))
+                .andExpect(status().isOk());
+        int cachedQuotes = quoteCache.size();
+
+        // when
+        var result = mockMvc.perform(post("/api/v1/orders/quote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sameCart)));
+
+        // then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.originalPrice", comparesEqualTo(BigDecimal.valueOf(19)), BigDecimal.class))
+                .andExpect(jsonPath("$.discount", comparesEqualTo(BigDecimal.valueOf(4.75)), BigDecimal.class))
+                .andExpect(jsonPath("$.price", comparesEqualTo(BigDecimal.valueOf(14.25)), BigDecimal.class));
+        assertEquals(cachedQuotes, quoteCache.size());
+    }
+
+    @Test
+    @DisplayName("Quote Order should use the current prices after a catalog change")
+    void quoteOrderAfterCatalogChangeTest() throws Exception {
+        // given
+        var inputOrder = InputOrder.builder()
+                .items(List.of(InputOrderItem.builder().drinkId(4L).build()))
+                .build();
+        mockMvc.perform(post("/api/v1/orders/quote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputOrder)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price", comparesEqualTo(BigDecimal.valueOf(3)), BigDecimal.class));
+        drinkService.updateDrink(4L, InputDrink.builder()
+                .name("Tea")
+                .price(BigDecimal.valueOf(3.5))
+                .build());
+
+        // when
+        var result = mockMvc.perform(post("/api/v1/orders/quote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inputOrder)));
+
+        // then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.price", comparesEqualTo(BigDecimal.valueOf(3.5)), BigDecimal.class));
+    }
+
+    @Test
+    @DisplayName("Quote Order with Non-Existent Drink should return 404 Not Found")
+    void quoteOrderNonExistentDrinkTest() throws Exception {
+        // given
+        var inputOrder = InputOrder.builder()
+                .items(List.of(InputOrderItem.builder().drinkId(99L).build()))
+                .build();
+
+        // when
+        var result = mockMvc.perform(post("/api/v1/orders/quote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inputOrder)));
+
+        // then
+        result.andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.reason", is(HttpStatus.NOT_FOUND.getReasonPhrase())))
+                .andExpect(jsonPath("$.message", is("Drink not found")));
+    }
+
+    @Test
+    @WithAnonymousUser
+    @DisplayName("Quote Order (Anonymous) should return 403 Forbidden")
+    void quoteOrderAnonymousTest() throws Exception {
+        // given
+        var inputOrder = InputOrder.builder()
+                .items(List.of(InputOrderItem.builder().drinkId(1L).build()))
+                .build();
+
+        // when
+        var result = mockMvc.perform(post("/api/v1/orders/quote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inputOrder)));
+
+        // then
+        result.andExpect(status().isForbidden());
+    }
+}
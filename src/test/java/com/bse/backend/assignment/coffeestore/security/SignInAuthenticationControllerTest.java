@@ -2,14 +2,17 @@ package com.bse.backend.assignment.coffeestore.security;
 
 import com.bse.backend.assignment.coffeestore.security.api.model.Role;
 import com.bse.backend.assignment.coffeestore.security.api.model.SignInRequest;
+import com.bse.backend.assignment.coffeestore.security.internal.AuthenticatedUserCache;
 import com.bse.backend.assignment.coffeestore.security.internal.persistence.UserEntity;
 import com.bse.backend.assignment.coffeestore.security.internal.persistence.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -20,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -40,6 +44,9 @@ class SignInAuthenticationControllerTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AuthenticatedUserCache authenticatedUserCache;
+
     @Test
     @DisplayName("Sign-In User should return JWT Token")
     void signInUserTest() throws Exception {
@@ -71,6 +78,75 @@ class SignInAuthenticationControllerTest {
                 .andExpect(jsonPath("$.token", notNullValue()));
     }
 
+    @Test
+    @DisplayName("Request with JWT Token from Sign-In should be authenticated")
+    void signInUserTokenAuthenticatesTest() throws Exception {
+        // given
+        String password = "qwerty";
+        UserEntity userEntity = userRepository.save(UserEntity.builder()
+                .email("will.turner@email.com")
+                .firstName("Will")
+                .lastName("Turner")
+                .password(passwordEncoder.encode(password))
+                .role(Role.USER)
+                .build());
+        var signInRequest = SignInRequest.builder()
+                .email(userEntity.getEmail())
+                .password(password)
+                .build();
+        String signInResponse = mockMvc.perform(MockMvcRequestBuilders
+                        .post("/api/v1/auth/sign-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signInRequest)))
+                .andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(signInResponse, "$.token");
+
+        // when
+        var result = mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/orders")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        result.andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Repeated requests with the same JWT Token should reuse the authenticated user")
+    void signInUserTokenCachedTest() throws Exception {
+        // given
+        String password = "qwerty";
+        UserEntity userEntity = userRepository.save(UserEntity.builder()
+                .email("elizabeth.swann@email.com")
+                .firstName("Elizabeth")
+                .lastName("Swann")
+                .password(passwordEncoder.encode(password))
+                .role(Role.USER)
+                .build());
+        var signInRequest = SignInRequest.builder()
+                .email(userEntity.getEmail())
+                .password(password)
+                .build();
+        String signInResponse = mockMvc.perform(MockMvcRequestBuilders
+                        .post("/api/v1/auth/sign-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signInRequest)))
+                .andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(signInResponse, "$.token");
+
+        // when
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(MockMvcRequestBuilders
+                            .get("/api/v1/orders")
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+        }
+
+        // then
+        assertTrue(authenticatedUserCache.getByToken(token).isPresent());
+    }
+
     @Test
     @DisplayName("Sign-In User with invalid data should return 400 Bad Request")
     void signInUserInvalidDataTest() throws Exception {